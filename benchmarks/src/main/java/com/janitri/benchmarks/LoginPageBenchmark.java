@@ -0,0 +1,108 @@
+package com.janitri.benchmarks;
+
+import com.janitri.base.DriverFactory;
+import com.janitri.pages.LoginPage;
+import com.janitri.server.LocalLoginServer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chrome.ChromeOptions;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-interaction cost of LoginPage operations. Every benchmark is dominated by chromedriver round
+ * trips, so results are reported as sampled wall-clock time in milliseconds.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+public class LoginPageBenchmark {
+    private LocalLoginServer server;
+    private WebDriver driver;
+    private LoginPage loginPage;
+
+    @Setup(Level.Trial)
+    public void startBrowser() {
+        // No notification dialog: the benchmark measures the form, not the permission flow
+        server = LocalLoginServer.start(0, false);
+        String baseUrl = server.getBaseUrl();
+
+        ChromeOptions options = DriverFactory.defaultOptions(baseUrl);
+        options.addArguments("--headless=new", "--window-size=1280,800");
+        driver = DriverFactory.createDriver(baseUrl, options);
+        driver.get(baseUrl);
+
+        loginPage = new LoginPage(driver);
+
+        // Leave an "Invalid Credentials" error on screen so getErrorMessage measures a rendered error
+        loginPage.enterUserId("invalid@test.com");
+        loginPage.enterPassword("invalidpassword");
+        loginPage.clickLoginButton();
+        loginPage.getErrorMessage();
+    }
+
+    @TearDown(Level.Trial)
+    public void stopBrowser() {
+        if (driver != null) {
+            driver.quit();
+        }
+        if (server != null) {
+            server.stop();
+        }
+    }
+
+    @Benchmark
+    public LoginPage constructLoginPage() {
+        // PageFactory.initElements plus the page readiness wait
+        return new LoginPage(driver);
+    }
+
+    @Benchmark
+    public void enterUserId() {
+        loginPage.enterUserId("benchmark@janitri.com");
+    }
+
+    @Benchmark
+    public void enterPassword() {
+        loginPage.enterPassword("benchmark-password");
+    }
+
+    @Benchmark
+    public void displayedProbes(Blackhole blackhole) {
+        // Each probe resolves its @FindBy proxy before asking for visibility
+        blackhole.consume(loginPage.isUserIdInputDisplayed());
+        blackhole.consume(loginPage.isPasswordInputDisplayed());
+        blackhole.consume(loginPage.isLoginButtonDisplayed());
+        blackhole.consume(loginPage.isJanitriLogoDisplayed());
+    }
+
+    @Benchmark
+    public boolean isErrorMessageDisplayed() {
+        return loginPage.isErrorMessageDisplayed();
+    }
+
+    @Benchmark
+    public boolean isPasswordToggleDisplayed() {
+        return loginPage.isPasswordToggleDisplayed();
+    }
+
+    @Benchmark
+    public String getErrorMessage() {
+        return loginPage.getErrorMessage();
+    }
+}
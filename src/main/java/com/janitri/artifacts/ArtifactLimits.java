@@ -0,0 +1,69 @@
+package com.janitri.artifacts;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+
+/**
+ * Caps that keep failure artifacts bounded: per-file sizes at capture time, and total size and age of
+ * the artifact directory, enforced by {@link ArtifactWriter#prune()}.
+ */
+public class ArtifactLimits {
+    private final Path directory;
+    private final int maxScreenshotBytes;
+    private final int maxDomChars;
+    private final int maxConsoleEntries;
+    private final int maxNetworkEntries;
+    private final long maxTotalBytes;
+    private final Duration maxAge;
+
+    public ArtifactLimits(Path directory, int maxScreenshotBytes, int maxDomChars, int maxConsoleEntries,
+                          int maxNetworkEntries, long maxTotalBytes, Duration maxAge) {
+        this.directory = directory;
+        this.maxScreenshotBytes = maxScreenshotBytes;
+        this.maxDomChars = maxDomChars;
+        this.maxConsoleEntries = maxConsoleEntries;
+        this.maxNetworkEntries = maxNetworkEntries;
+        this.maxTotalBytes = maxTotalBytes;
+        this.maxAge = maxAge;
+    }
+
+    public static ArtifactLimits fromSystemProperties() {
+        return new ArtifactLimits(
+                Paths.get(System.getProperty("test.artifacts.dir", "target/failure-artifacts")),
+                Integer.getInteger("test.artifacts.max.screenshot.kb", 4096) * 1024,
+                Integer.getInteger("test.artifacts.max.dom.kb", 1024) * 1024,
+                Integer.getInteger("test.artifacts.max.console.entries", 500),
+                Integer.getInteger("test.artifacts.max.network.entries", 150),
+                Long.getLong("test.artifacts.max.mb", 200L) * 1024 * 1024,
+                Duration.ofDays(Long.getLong("test.artifacts.max.age.days", 7L)));
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    public int getMaxScreenshotBytes() {
+        return maxScreenshotBytes;
+    }
+
+    public int getMaxDomChars() {
+        return maxDomChars;
+    }
+
+    public int getMaxConsoleEntries() {
+        return maxConsoleEntries;
+    }
+
+    public int getMaxNetworkEntries() {
+        return maxNetworkEntries;
+    }
+
+    public long getMaxTotalBytes() {
+        return maxTotalBytes;
+    }
+
+    public Duration getMaxAge() {
+        return maxAge;
+    }
+}
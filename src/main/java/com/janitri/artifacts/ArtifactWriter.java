@@ -0,0 +1,193 @@
+package com.janitri.artifacts;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes failure snapshots to {@code target/failure-artifacts/<time>-<test>/} on a small bounded executor.
+ * Text is gzipped there, off the test thread. When the queue is full a snapshot is dropped rather than
+ * making the failing test wait, and {@link #prune()} keeps the directory within its age and size limits.
+ */
+public class ArtifactWriter {
+    private static final Logger LOG = LoggerFactory.getLogger(ArtifactWriter.class);
+    private static final DateTimeFormatter DIRECTORY_TIME =
+            DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS").withZone(ZoneId.systemDefault());
+
+    private static final ArtifactWriter INSTANCE = new ArtifactWriter(ArtifactLimits.fromSystemProperties(), 2, 16);
+
+    private final ArtifactLimits limits;
+    private final ThreadPoolExecutor executor;
+    private final Queue<Future<?>> pending = new ConcurrentLinkedQueue<>();
+
+    ArtifactWriter(ArtifactLimits limits, int threads, int queueSize) {
+        this.limits = limits;
+        AtomicInteger threadIds = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueSize), runnable -> {
+                    Thread thread = new Thread(runnable, "failure-artifacts-" + threadIds.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    public static ArtifactWriter getInstance() {
+        return INSTANCE;
+    }
+
+    public ArtifactLimits getLimits() {
+        return limits;
+    }
+
+    // Returns the directory the snapshot will land in, or null when it was dropped
+    public Path submit(FailureSnapshot snapshot) {
+        Path target = limits.getDirectory().resolve(DIRECTORY_TIME.format(snapshot.getCapturedAt()) + "-"
+                + snapshot.getName().replaceAll("[^A-Za-z0-9._-]", "_"));
+        try {
+            pending.add(executor.submit(() -> {
+                write(target, snapshot);
+                return null;
+            }));
+            return target;
+        } catch (RejectedExecutionException e) {
+            LOG.warn("Artifact queue full, dropped failure snapshot of {}", snapshot.getName());
+            return null;
+        }
+    }
+
+    // Waits for queued snapshots, e.g. at the end of the suite before the JVM exits
+    public void drain(Duration timeout) {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        Future<?> future;
+        while ((future = pending.poll()) != null) {
+            try {
+                future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                LOG.warn("Failure artifacts still being written after {}", timeout);
+                return;
+            } catch (ExecutionException e) {
+                LOG.warn("Could not write failure artifacts: {}", String.valueOf(e.getCause()));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    // Deletes snapshot directories older than the age limit, then the oldest ones until under the size limit
+    public void prune() {
+        Path root = limits.getDirectory();
+        if (!Files.isDirectory(root)) {
+            return;
+        }
+        List<Path> directories = new ArrayList<>();
+        try (Stream<Path> children = Files.list(root)) {
+            children.filter(Files::isDirectory).forEach(directories::add);
+        } catch (IOException e) {
+            LOG.warn("Could not list failure artifacts in {}: {}", root, e.getMessage());
+            return;
+        }
+        // Directory names start with the capture time, so name order is age order
+        directories.sort(Comparator.comparing(path -> path.getFileName().toString()));
+
+        Instant cutoff = Instant.now().minus(limits.getMaxAge());
+        long total = 0;
+        List<Long> sizes = new ArrayList<>();
+        for (Path directory : directories) {
+            long size = sizeOf(directory);
+            sizes.add(size);
+            total += size;
+        }
+        int deleted = 0;
+        for (int i = 0; i < directories.size(); i++) {
+            Path directory = directories.get(i);
+            if (total <= limits.getMaxTotalBytes() && !modifiedBefore(directory, cutoff)) {
+                continue;
+            }
+            if (delete(directory)) {
+                total -= sizes.get(i);
+                deleted++;
+            }
+        }
+        if (deleted > 0) {
+            LOG.info("Pruned {} old failure artifact directories from {}", deleted, root);
+        }
+    }
+
+    private void write(Path directory, FailureSnapshot snapshot) throws IOException {
+        Files.createDirectories(directory);
+        for (FailureSnapshot.Artifact artifact : snapshot.getArtifacts()) {
+            if (artifact.isCompressed()) {
+                try (OutputStream out = new GZIPOutputStream(
+                        Files.newOutputStream(directory.resolve(artifact.getFileName() + ".gz")))) {
+                    out.write(artifact.getData());
+                }
+            } else {
+                Files.write(directory.resolve(artifact.getFileName()), artifact.getData());
+            }
+        }
+    }
+
+    private static long sizeOf(Path directory) {
+        try (Stream<Path> files = Files.walk(directory)) {
+            return files.filter(Files::isRegularFile).mapToLong(file -> {
+                try {
+                    return Files.size(file);
+                } catch (IOException e) {
+                    return 0;
+                }
+            }).sum();
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    private static boolean modifiedBefore(Path directory, Instant cutoff) {
+        try {
+            FileTime modified = Files.getLastModifiedTime(directory);
+            return modified.toInstant().isBefore(cutoff);
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static boolean delete(Path directory) {
+        try (Stream<Path> files = Files.walk(directory)) {
+            List<Path> paths = new ArrayList<>();
+            files.forEach(paths::add);
+            // Children before their parents
+            for (int i = paths.size() - 1; i >= 0; i--) {
+                Files.deleteIfExists(paths.get(i));
+            }
+            return true;
+        } catch (IOException e) {
+            LOG.warn("Could not delete {}: {}", directory, e.getMessage());
+            return false;
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package com.janitri.artifacts;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.TakesScreenshot;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.logging.LogEntry;
+import org.openqa.selenium.logging.LogType;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Raw browser state grabbed at the moment a test fails: screenshot, DOM, console and the most recent
+ * resource timing entries. Capturing only copies bytes out of the browser; encoding and disk writes are
+ * left to {@link ArtifactWriter}, so the session can go back to the pool right away.
+ */
+public class FailureSnapshot {
+    // Newest resource entries only; the page's full list is unbounded on a long-lived SPA
+    private static final String NETWORK_SCRIPT =
+            "var entries = performance.getEntriesByType('resource').slice(-arguments[0]);" +
+            "return JSON.stringify(entries.map(function(e) { return {" +
+            "  name: e.name, type: e.initiatorType, start: Math.round(e.startTime)," +
+            "  duration: Math.round(e.duration), transferSize: e.transferSize," +
+            "  status: e.responseStatus }; }), null, 1);";
+
+    private final String name;
+    private final Instant capturedAt = Instant.now();
+    private final List<Artifact> artifacts = new ArrayList<>();
+
+    FailureSnapshot(String name) {
+        this.name = name;
+    }
+
+    // Each part is captured on its own, so a dead page still yields whatever the browser can give
+    public static FailureSnapshot capture(WebDriver driver, String name, long sinceMillis, Throwable failure,
+                                          ArtifactLimits limits) {
+        FailureSnapshot snapshot = new FailureSnapshot(name);
+
+        StringBuilder summary = new StringBuilder();
+        summary.append("test: ").append(name).append(System.lineSeparator());
+        try {
+            summary.append("url: ").append(driver.getCurrentUrl()).append(System.lineSeparator());
+            summary.append("title: ").append(driver.getTitle()).append(System.lineSeparator());
+        } catch (Exception e) {
+            summary.append("page: unavailable (").append(e.getMessage()).append(')').append(System.lineSeparator());
+        }
+        if (failure != null) {
+            summary.append(System.lineSeparator()).append(stackTrace(failure));
+        }
+        snapshot.addText("failure.txt", summary.toString(), false);
+
+        try {
+            byte[] png = ((TakesScreenshot) driver).getScreenshotAs(OutputType.BYTES);
+            if (png.length <= limits.getMaxScreenshotBytes()) {
+                // PNG is compressed already
+                snapshot.add("screenshot.png", png, false);
+            } else {
+                snapshot.addText("screenshot.txt", "Screenshot of " + png.length + " bytes exceeded the cap", false);
+            }
+        } catch (Exception e) {
+            snapshot.addText("screenshot.txt", "No screenshot: " + e.getMessage(), false);
+        }
+
+        try {
+            snapshot.addText("dom.html", truncate(driver.getPageSource(), limits.getMaxDomChars()), true);
+        } catch (Exception e) {
+            snapshot.addText("dom.txt", "No DOM snapshot: " + e.getMessage(), false);
+        }
+
+        try {
+            snapshot.addText("console.log", console(driver, sinceMillis, limits.getMaxConsoleEntries()), true);
+        } catch (Exception e) {
+            // goog:loggingPrefs not enabled for this session
+        }
+
+        try {
+            Object network = ((JavascriptExecutor) driver).executeScript(NETWORK_SCRIPT, limits.getMaxNetworkEntries());
+            snapshot.addText("network.json", String.valueOf(network), true);
+        } catch (Exception e) {
+            snapshot.addText("network.txt", "No resource timing: " + e.getMessage(), false);
+        }
+        return snapshot;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Instant getCapturedAt() {
+        return capturedAt;
+    }
+
+    public List<Artifact> getArtifacts() {
+        return Collections.unmodifiableList(artifacts);
+    }
+
+    public void add(String fileName, byte[] data, boolean compress) {
+        artifacts.add(new Artifact(fileName, data, compress));
+    }
+
+    public void addText(String fileName, String text, boolean compress) {
+        add(fileName, text.getBytes(StandardCharsets.UTF_8), compress);
+    }
+
+    // The session's log buffer outlives a single test, so only entries since this test started count
+    private static String console(WebDriver driver, long sinceMillis, int maxEntries) {
+        List<LogEntry> entries = new ArrayList<>();
+        for (LogEntry entry : driver.manage().logs().get(LogType.BROWSER)) {
+            if (entry.getTimestamp() >= sinceMillis) {
+                entries.add(entry);
+            }
+        }
+        StringBuilder text = new StringBuilder();
+        int skipped = Math.max(0, entries.size() - maxEntries);
+        if (skipped > 0) {
+            text.append("... ").append(skipped).append(" earlier entries dropped").append(System.lineSeparator());
+        }
+        for (LogEntry entry : entries.subList(skipped, entries.size())) {
+            text.append(Instant.ofEpochMilli(entry.getTimestamp())).append(' ').append(entry.getLevel())
+                    .append(' ').append(entry.getMessage()).append(System.lineSeparator());
+        }
+        return text.toString();
+    }
+
+    private static String truncate(String text, int maxChars) {
+        if (text == null || text.length() <= maxChars) {
+            return String.valueOf(text);
+        }
+        return text.substring(0, maxChars) + System.lineSeparator() + "<!-- truncated at " + maxChars + " chars -->";
+    }
+
+    private static String stackTrace(Throwable failure) {
+        StringWriter out = new StringWriter();
+        failure.printStackTrace(new PrintWriter(out));
+        return out.toString();
+    }
+
+    public static final class Artifact {
+        private final String fileName;
+        private final byte[] data;
+        private final boolean compress;
+
+        Artifact(String fileName, byte[] data, boolean compress) {
+            this.fileName = fileName;
+            this.data = data;
+            this.compress = compress;
+        }
+
+        public String getFileName() {
+            return fileName;
+        }
+
+        public byte[] getData() {
+            return data;
+        }
+
+        public boolean isCompressed() {
+            return compress;
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package com.janitri.artifacts;
+
+import com.janitri.utils.CdpSupport;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.devtools.Command;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.Event;
+import org.openqa.selenium.devtools.HasDevTools;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Opt-in video-like evidence from DevTools {@code Page.startScreencast}: Chrome pushes downsampled JPEG
+ * frames only when the page repaints, identical consecutive frames are dropped, and only the last few
+ * seconds are kept in memory. Frames stay base64 until a failure asks for them, so recording costs little
+ * more than the acknowledgement each frame needs.
+ */
+public class ScreencastRecorder implements AutoCloseable {
+    private static final Map<WebDriver, ScreencastRecorder> RECORDERS = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private final DevTools devTools;
+    private final Deque<Frame> frames = new ArrayDeque<>();
+    private final long windowMillis;
+    private final int maxFrames;
+    private final Map<String, Object> settings = new HashMap<>();
+
+    private volatile boolean recording;
+    private int lastHash;
+    private int lastLength = -1;
+    private long dropped;
+
+    private ScreencastRecorder(DevTools devTools) {
+        this.devTools = devTools;
+        this.windowMillis = Long.getLong("test.screencast.seconds", 10L) * 1000;
+        this.maxFrames = Integer.getInteger("test.screencast.max.frames", 300);
+        // Chrome scales frames down to fit and skips all but every nth one before they leave the browser
+        settings.put("format", "jpeg");
+        settings.put("quality", Integer.getInteger("test.screencast.quality", 40));
+        settings.put("maxWidth", Integer.getInteger("test.screencast.max.width", 640));
+        settings.put("maxHeight", Integer.getInteger("test.screencast.max.height", 400));
+        settings.put("everyNthFrame", Integer.getInteger("test.screencast.every.nth", 2));
+        devTools.addListener(new Event<>("Page.screencastFrame", input -> input.<Map<String, Object>>read(Map.class)),
+                this::onFrame);
+    }
+
+    public static boolean isEnabled() {
+        return Boolean.getBoolean("test.screencast");
+    }
+
+    // Starts a fresh recording of the driver's current window; null when the driver has no DevTools
+    public static ScreencastRecorder start(WebDriver driver) {
+        WebDriver raw = CdpSupport.unwrap(driver);
+        if (!(raw instanceof HasDevTools)) {
+            return null;
+        }
+        ScreencastRecorder recorder;
+        synchronized (RECORDERS) {
+            recorder = RECORDERS.get(raw);
+            if (recorder == null) {
+                DevTools devTools = ((HasDevTools) raw).maybeGetDevTools().orElse(null);
+                if (devTools == null) {
+                    return null;
+                }
+                recorder = new ScreencastRecorder(devTools);
+                RECORDERS.put(raw, recorder);
+            }
+        }
+        recorder.begin(raw.getWindowHandle());
+        return recorder;
+    }
+
+    // The recorder currently recording this driver, if any
+    public static ScreencastRecorder active(WebDriver driver) {
+        ScreencastRecorder recorder = RECORDERS.get(CdpSupport.unwrap(driver));
+        return recorder != null && recorder.recording ? recorder : null;
+    }
+
+    // Adds the buffered frames, oldest first, plus an index of their offsets to a failure snapshot
+    public void addTo(FailureSnapshot snapshot) {
+        List<Frame> copy;
+        long droppedFrames;
+        synchronized (frames) {
+            copy = new ArrayList<>(frames);
+            droppedFrames = dropped;
+        }
+        if (copy.isEmpty()) {
+            return;
+        }
+        long first = copy.get(0).timestampMillis;
+        StringBuilder index = new StringBuilder();
+        index.append(copy.size()).append(" frames over ")
+                .append(copy.get(copy.size() - 1).timestampMillis - first).append(" ms, ")
+                .append(droppedFrames).append(" identical frames dropped").append(System.lineSeparator());
+        for (int i = 0; i < copy.size(); i++) {
+            String name = String.format("screencast-%04d.jpg", i + 1);
+            snapshot.add(name, Base64.getDecoder().decode(copy.get(i).base64), false);
+            index.append(name).append(" +").append(copy.get(i).timestampMillis - first).append(" ms")
+                    .append(System.lineSeparator());
+        }
+        snapshot.addText("screencast.txt", index.toString(), false);
+    }
+
+    @Override
+    public void close() {
+        if (!recording) {
+            return;
+        }
+        recording = false;
+        try {
+            devTools.send(new Command<>("Page.stopScreencast", new HashMap<>()));
+        } catch (Exception e) {
+            // The page or browser is already gone
+        }
+    }
+
+    private void begin(String windowHandle) {
+        close();
+        synchronized (frames) {
+            frames.clear();
+            lastLength = -1;
+            dropped = 0;
+        }
+        devTools.createSessionIfThereIsNotOne(windowHandle);
+        recording = true;
+        devTools.send(new Command<>("Page.startScreencast", new HashMap<>(settings)));
+    }
+
+    private void onFrame(Map<String, Object> params) {
+        // Chrome stops sending frames until each one is acknowledged
+        Map<String, Object> ack = new HashMap<>();
+        ack.put("sessionId", params.get("sessionId"));
+        try {
+            devTools.send(new Command<>("Page.screencastFrameAck", ack));
+        } catch (Exception e) {
+            return;
+        }
+        if (!recording) {
+            return;
+        }
+
+        String data = String.valueOf(params.get("data"));
+        Object metadata = params.get("metadata");
+        Object timestamp = metadata instanceof Map ? ((Map<?, ?>) metadata).get("timestamp") : null;
+        long millis = timestamp instanceof Number
+                ? Math.round(((Number) timestamp).doubleValue() * 1000) : System.currentTimeMillis();
+
+        synchronized (frames) {
+            // A repaint that produced the same image (cursor blink elsewhere, identical re-render)
+            int hash = data.hashCode();
+            if (data.length() == lastLength && hash == lastHash) {
+                dropped++;
+                return;
+            }
+            lastHash = hash;
+            lastLength = data.length();
+
+            frames.addLast(new Frame(millis, data));
+            while (frames.size() > maxFrames || millis - frames.peekFirst().timestampMillis > windowMillis) {
+                frames.removeFirst();
+            }
+        }
+    }
+
+    private static final class Frame {
+        private final long timestampMillis;
+        private final String base64;
+
+        Frame(long timestampMillis, String base64) {
+            this.timestampMillis = timestampMillis;
+            this.base64 = base64;
+        }
+    }
+}
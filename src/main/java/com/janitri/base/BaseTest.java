@@ -1,160 +1,197 @@
 package com.janitri.base;
 
-import io.github.bonigarcia.wdm.WebDriverManager;
+import com.janitri.artifacts.ScreencastRecorder;
+import com.janitri.perf.PerformanceBudgets;
+import com.janitri.server.LocalLoginServer;
+import com.janitri.trace.Trace;
+import com.janitri.utils.LoginApiStub;
+import com.janitri.utils.ReadinessConditions;
+import com.janitri.utils.WaitEngine;
+import com.janitri.utils.WaitTimings;
 import org.openqa.selenium.WebDriver;
-import org.openqa.selenium.chrome.ChromeDriver;
-import org.openqa.selenium.chrome.ChromeOptions;
 import org.openqa.selenium.support.ui.WebDriverWait;
-import org.openqa.selenium.JavascriptExecutor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.ITestResult;
+import org.testng.annotations.AfterClass;
 import org.testng.annotations.AfterMethod;
+import org.testng.annotations.AfterSuite;
 import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.BeforeSuite;
 
+import java.lang.reflect.Method;
 import java.time.Duration;
-import java.util.HashMap;
-import java.util.Map;
 
 public class BaseTest {
-    protected WebDriver driver;
-    protected WebDriverWait wait;
-    protected static final String BASE_URL = "https://dev-dash.janitri.in/";
+    private static final Logger LOG = LoggerFactory.getLogger(BaseTest.class);
+    private static final Duration PAGE_READY_TIMEOUT = Duration.ofSeconds(15);
+
+    private static LocalLoginServer localServer;
+
+    @BeforeSuite(alwaysRun = true)
+    public void startLocalServer() {
+        synchronized (BaseTest.class) {
+            if (localServer != null || !TestConfig.useLocalServer()) {
+                return;
+            }
+            localServer = LocalLoginServer.start(TestConfig.localServerPort(),
+                    TestConfig.localServerRequiresNotifications());
+            localServer.script().latency(Duration.ofMillis(TestConfig.localLatencyMillis()));
+            TestConfig.overrideBaseUrl(localServer.getBaseUrl());
+            LOG.info("Local login server started at {}", localServer.getBaseUrl());
+        }
+    }
 
     @BeforeMethod
-    public void setUp() {
-        initializeDriver();
-        driver.manage().window().maximize();
-        driver.manage().timeouts().implicitlyWait(Duration.ofSeconds(10));
-        wait = new WebDriverWait(driver, Duration.ofSeconds(15));
-
-        // Navigate to the login page
-        driver.get(BASE_URL);
-
-        // Handle any permission requests and notification dialogs
-        handlePermissionRequests();
-        grantNotificationPermissions();
-    }
-
-    private void initializeDriver() {
-        // Suppress logging to reduce CDP warnings
-        System.setProperty("webdriver.chrome.silentOutput", "true");
-        System.setProperty("webdriver.chrome.logLevel", "OFF");
-
-        WebDriverManager.chromedriver().setup();
-        ChromeOptions chromeOptions = new ChromeOptions();
-
-        // Enhanced options to handle permissions and notifications
-        chromeOptions.addArguments("--disable-notifications");
-        chromeOptions.addArguments("--disable-popup-blocking");
-        chromeOptions.addArguments("--disable-web-security");
-        chromeOptions.addArguments("--allow-running-insecure-content");
-        chromeOptions.addArguments("--remote-allow-origins=*");
-        chromeOptions.addArguments("--disable-features=VizDisplayCompositor");
-        chromeOptions.addArguments("--disable-extensions");
-        chromeOptions.addArguments("--no-sandbox");
-        chromeOptions.addArguments("--disable-dev-shm-usage");
-
-        // Handle notification permissions more aggressively
-        chromeOptions.addArguments("--disable-notifications");
-        chromeOptions.addArguments("--disable-permission-requests-ui");
-        chromeOptions.addArguments("--disable-background-networking");
-        chromeOptions.addArguments("--disable-background-timer-throttling");
-        chromeOptions.addArguments("--disable-client-side-phishing-detection");
-        chromeOptions.addArguments("--disable-default-apps");
-        chromeOptions.addArguments("--disable-hang-monitor");
-        chromeOptions.addArguments("--disable-prompt-on-repost");
-
-        // Set notification permission preferences
-        Map<String, Object> prefs = new HashMap<>();
-        prefs.put("profile.default_content_setting_values.notifications", 1); // Allow notifications
-        prefs.put("profile.default_content_settings.popups", 0);
-        prefs.put("profile.managed_default_content_settings.notifications", 1);
-        chromeOptions.setExperimentalOption("prefs", prefs);
-
-        // Set notification permission at content settings level
-        chromeOptions.addArguments("--content-settings-pattern=*");
-        chromeOptions.addArguments("--content-settings-exceptions-notifications=" + BASE_URL + ",*,1");
-
-        driver = new ChromeDriver(chromeOptions);
-    }
-
-    private void handlePermissionRequests() {
-        try {
-            // Wait longer for page to load and permissions to settle
-            Thread.sleep(3000);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
+    public void setUp(Method method) {
+        // Lease a warm browser session that is already on the login page and confine it to this thread.
+        // A retry reuses the browser its failed attempt recovered in place.
+        WebDriver driver = takeRetainedFor(testKey(method.getName()));
+        if (driver == null) {
+            driver = DriverPool.getInstance().lease(getBaseUrl());
         }
+        TestSession session = new TestSession(driver);
+        DriverRegistry.register(session);
+        if (ScreencastRecorder.isEnabled()) {
+            startScreencast(session);
+        }
+
+        // Notification permission is granted through DevTools when the session is created,
+        // so the page only needs to finish loading
+        waitForPageReady();
     }
 
-    private void grantNotificationPermissions() {
-        try {
-            // Use JavaScript to grant notification permission programmatically
-            JavascriptExecutor js = (JavascriptExecutor) driver;
-
-            // Method 1: Try to grant notification permission via JavaScript
-            String notificationScript =
-                    "if ('Notification' in window) {" +
-                            "  if (Notification.permission === 'default') {" +
-                            "    Notification.requestPermission().then(function(permission) {" +
-                            "      console.log('Notification permission:', permission);" +
-                            "    });" +
-                            "  }" +
-                            "  console.log('Current notification permission:', Notification.permission);" +
-                            "}";
-
-            js.executeScript(notificationScript);
-
-            // Method 2: Override the notification permission check
-            String overrideScript =
-                    "Object.defineProperty(Notification, 'permission', {" +
-                            "  get: function() { return 'granted'; }" +
-                            "});" +
-                            "if (window.Notification) {" +
-                            "  window.Notification.permission = 'granted';" +
-                            "}";
-
-            js.executeScript(overrideScript);
-
-            // Method 3: Mock the notification API entirely
-            String mockNotificationScript =
-                    "if (!window.Notification) {" +
-                            "  window.Notification = function(title, options) {" +
-                            "    console.log('Mock notification:', title, options);" +
-                            "    return { close: function() {} };" +
-                            "  };" +
-                            "  window.Notification.permission = 'granted';" +
-                            "  window.Notification.requestPermission = function() {" +
-                            "    return Promise.resolve('granted');" +
-                            "  };" +
-                            "}";
-
-            js.executeScript(mockNotificationScript);
-
-            // Wait for any async permission handling
-            Thread.sleep(2000);
-
-            // Try to reload the page to bypass notification requirement
-            driver.navigate().refresh();
-            Thread.sleep(3000);
-
-            System.out.println("Notification permissions handling completed");
+    // The browser kept for this test's retry; one kept for any other test goes back to the pool
+    private WebDriver takeRetainedFor(String testKey) {
+        DriverRegistry.Retained retained = DriverRegistry.takeRetained();
+        if (retained == null) {
+            return null;
+        }
+        if (retained.getTestKey().equals(testKey)) {
+            return retained.getDriver();
+        }
+        Trace.warn("Retry of {} never ran on this thread, releasing its browser", retained.getTestKey());
+        DriverPool.getInstance().release(retained.getDriver(), getBaseUrl());
+        return null;
+    }
 
+    private String testKey(String methodName) {
+        return getClass().getName() + "#" + methodName;
+    }
+
+    // Recording stops with the test's other resources in tearDown, after a failure has been captured
+    private void startScreencast(TestSession session) {
+        try {
+            ScreencastRecorder recorder = ScreencastRecorder.start(session.getDriver());
+            if (recorder != null) {
+                session.own(recorder);
+            }
         } catch (Exception e) {
-            System.out.println("Error handling notification permissions: " + e.getMessage());
+            Trace.warn("Could not start screencast: {}", e.getMessage());
+        }
+    }
+
+    private void waitForPageReady() {
+        // Wait until the page has finished loading instead of a fixed pause
+        if (!getWaitEngine().tryUntil(ReadinessConditions.documentReady(), PAGE_READY_TIMEOUT)) {
+            Trace.warn("Page did not report readyState 'complete' within {}", PAGE_READY_TIMEOUT);
+        }
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void tearDown(ITestResult result) {
+        // Left over when setUp failed and the test never ran
+        PerformanceBudgets.takeExceeded();
+        TestSession session = DriverRegistry.unregister();
+        if (session == null) {
+            return;
+        }
+        session.closeResources();
+
+        // TestNG decides on a retry before @AfterMethod runs, on this same thread
+        if (result.wasRetried()) {
+            if (DriverPool.getInstance().recover(session.getDriver(), getBaseUrl())) {
+                Trace.event("Recovered browser session in place for retry of {}", result.getName());
+                DriverRegistry.retain(testKey(result.getMethod().getMethodName()), session.getDriver());
+            } else {
+                Trace.warn("Session recovery failed, retry of {} will use a new browser", result.getName());
+                DriverPool.getInstance().evict(session.getDriver());
+            }
+            return;
         }
+
+        // Reset the session and hand it back to the pool instead of quitting Chrome
+        DriverPool.getInstance().release(session.getDriver(), getBaseUrl());
     }
 
-    @AfterMethod
-    public void tearDown() {
-        if (driver != null) {
-            driver.quit();
+    // Every method of the class has run, so a browser still kept for one of their retries would hold its pool
+    // permit until shutdown
+    @AfterClass(alwaysRun = true)
+    public void releaseRetainedDrivers() {
+        String prefix = getClass().getName() + "#";
+        for (WebDriver driver : DriverRegistry.takeRetained(key -> key.startsWith(prefix))) {
+            LOG.warn("Releasing a browser kept for a retry that never ran in {}", getClass().getSimpleName());
+            DriverPool.getInstance().release(driver, getBaseUrl());
+        }
+    }
+
+    @AfterSuite(alwaysRun = true)
+    public void shutDownDriverPool() {
+        DriverPool.getInstance().shutdown();
+
+        synchronized (BaseTest.class) {
+            if (localServer != null) {
+                localServer.stop();
+                localServer = null;
+            }
+        }
+
+        LOG.info("=== Wait condition timings ==={}{}", System.lineSeparator(),
+                String.join(System.lineSeparator(), WaitTimings.report()));
+    }
+
+    protected static String getBaseUrl() {
+        return TestConfig.baseUrl();
+    }
+
+    // Only available when the suite runs with -Dtest.local.server=true
+    protected static LocalLoginServer getLocalServer() {
+        synchronized (BaseTest.class) {
+            if (localServer == null) {
+                throw new IllegalStateException("Local login server is not running; set -Dtest.local.server=true");
+            }
+            return localServer;
         }
     }
 
     public WebDriver getDriver() {
-        return driver;
+        return DriverRegistry.current().getDriver();
     }
 
     public WebDriverWait getWait() {
-        return wait;
+        return DriverRegistry.current().getWait();
+    }
+
+    protected WaitEngine getWaitEngine() {
+        return DriverRegistry.current().getWaitEngine();
+    }
+
+    // Replies to the login XHR inside the browser instead of calling the authentication backend
+    protected LoginApiStub stubLoginApi(LoginApiStub.Reply reply) {
+        LoginApiStub.Reply effective = TestConfig.loginApiPassThrough() ? LoginApiStub.Reply.passThrough() : reply;
+        TestSession session = DriverRegistry.current();
+        return session.own(LoginApiStub.install(session.getDriver(), TestConfig.loginApiPath(), effective));
+    }
+
+    // Page objects are owned by the current test invocation, never shared between threads
+    protected <P> P page(Class<P> type) {
+        return DriverRegistry.current().page(type);
+    }
+
+    // Pages with a @PerformanceBudget have the document loaded in setUp checked against it
+    protected void registerPage(Object page) {
+        TestSession session = DriverRegistry.current();
+        session.registerPage(page);
+        PerformanceBudgets.enforce(page.getClass(), session.getDriver());
     }
 }
\ No newline at end of file
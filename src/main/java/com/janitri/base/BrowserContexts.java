@@ -0,0 +1,132 @@
+package com.janitri.base;
+
+import com.janitri.trace.Trace;
+import com.janitri.utils.CdpSupport;
+import org.openqa.selenium.Dimension;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.devtools.Command;
+import org.openqa.selenium.devtools.Connection;
+import org.openqa.selenium.devtools.HasDevTools;
+import org.openqa.selenium.devtools.SeleniumCdpConnection;
+
+import java.io.Closeable;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Gives each lease of a pooled browser its own incognito-style browser context, created with
+ * {@code Target.createBrowserContext}. Cookies, storage and cache live only as long as the context, so a
+ * test starts clean in milliseconds instead of launching Chrome or scrubbing state in place. The window the
+ * session was created with stays open in the default context as an anchor; closing a session's last window
+ * would end it.
+ */
+class BrowserContexts implements Closeable {
+    private static final Duration CDP_TIMEOUT = Duration.ofSeconds(10);
+
+    private final WebDriver driver;
+    // Context commands are browser-level, which chromedriver's executeCdpCommand (page-level) cannot send
+    private final Connection browser;
+    private final String anchorHandle;
+
+    private String contextId;
+
+    private BrowserContexts(WebDriver driver, Connection browser) {
+        this.driver = driver;
+        this.browser = browser;
+        this.anchorHandle = driver.getWindowHandle();
+    }
+
+    static BrowserContexts attach(WebDriver driver) {
+        Connection browser = SeleniumCdpConnection.create(CdpSupport.unwrap(driver))
+                .orElseThrow(() -> new UnsupportedOperationException(
+                        "Browser contexts need a DevTools connection, which this driver does not expose"));
+        return new BrowserContexts(driver, browser);
+    }
+
+    // Replaces the current context with a fresh one showing baseUrl and switches the driver to it
+    void open(String baseUrl) {
+        dispose();
+
+        Map<String, Object> context = new HashMap<>();
+        context.put("disposeOnDetach", true);
+        contextId = (String) send("Target.createBrowserContext", context).get("browserContextId");
+
+        Map<String, Object> target = new HashMap<>();
+        target.put("url", "about:blank");
+        target.put("browserContextId", contextId);
+        Dimension viewport = TestConfig.viewport();
+        if (viewport != null) {
+            target.put("width", viewport.getWidth());
+            target.put("height", viewport.getHeight());
+        }
+        String targetId = (String) send("Target.createTarget", target).get("targetId");
+
+        // chromedriver uses DevTools target ids as window handles
+        driver.switchTo().window(targetId);
+        if (viewport != null) {
+            driver.manage().window().setSize(viewport);
+        } else {
+            driver.manage().window().maximize();
+        }
+
+        // Permission grants and URL blocking are scoped to a context and a page respectively,
+        // so they are applied again before the first navigation, as is network tracking
+        grantPermissions(baseUrl);
+        DriverFactory.blockUrls(driver, TestConfig.blockedUrlPatterns());
+        DriverFactory.trackNetwork(driver);
+        driver.get(baseUrl);
+        Trace.event("Opened browser context {}", contextId);
+    }
+
+    // Closes the current context with every page and popup it opened; the driver is left on the anchor
+    void dispose() {
+        if (contextId == null) {
+            return;
+        }
+        String disposing = contextId;
+        contextId = null;
+
+        // Selenium's own DevTools session (network interception) is bound to the page that is going away
+        WebDriver raw = CdpSupport.unwrap(driver);
+        if (raw instanceof HasDevTools) {
+            ((HasDevTools) raw).maybeGetDevTools().ifPresent(devTools -> devTools.disconnectSession());
+        }
+        driver.switchTo().window(anchorHandle);
+
+        Map<String, Object> params = new HashMap<>();
+        params.put("browserContextId", disposing);
+        send("Target.disposeBrowserContext", params);
+    }
+
+    @Override
+    public void close() {
+        try {
+            dispose();
+        } catch (Exception e) {
+            // The browser is being shut down anyway
+        } finally {
+            browser.close();
+        }
+    }
+
+    private void grantPermissions(String baseUrl) {
+        Map<String, Object> params = new HashMap<>();
+        params.put("origin", CdpSupport.originOf(baseUrl));
+        params.put("permissions", Arrays.asList(DriverFactory.permissions()));
+        params.put("browserContextId", contextId);
+        try {
+            send("Browser.grantPermissions", params);
+        } catch (Exception e) {
+            Trace.warn("Could not grant browser permissions in context {}: {}", contextId, e.getMessage());
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> send(String method, Map<String, Object> params) {
+        // A null session id addresses the browser target itself
+        Object result = browser.sendAndWait(null, new Command<>(method, params, Map.class), CDP_TIMEOUT);
+        return result == null ? new HashMap<>() : (Map<String, Object>) result;
+    }
+}
@@ -0,0 +1,184 @@
+package com.janitri.base;
+
+import com.janitri.utils.LockedPropertiesFile;
+import io.github.bonigarcia.wdm.WebDriverManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Properties;
+
+/**
+ * Resolves the chromedriver (and optionally Chrome) binary once per JVM. The result is also written to a
+ * small machine-wide cache file, guarded by a file lock, so parallel surefire forks and later runs skip
+ * WebDriverManager's version detection and network lookups entirely. Entries are kept per browser: the
+ * pinned {@code test.chrome.binary}, or the system Chrome when none is pinned.
+ *
+ * <p>With {@code -Dtest.driver.offline=true} nothing is downloaded: {@code test.chromedriver.path} (and
+ * optionally {@code test.chrome.binary}) must point at a pinned local pair.</p>
+ */
+public class DriverBinaries {
+    private static final Logger LOG = LoggerFactory.getLogger(DriverBinaries.class);
+    private static final String DRIVER_PATH = "driver.path";
+    private static final String DRIVER_VERSION = "driver.version";
+    private static final String RESOLVED_AT = "resolved.at";
+    private static final String SYSTEM_BROWSER = "system";
+
+    private static Resolution resolved;
+
+    private DriverBinaries() {
+    }
+
+    public static synchronized Resolution resolve() {
+        if (resolved == null) {
+            resolved = doResolve();
+            System.setProperty("webdriver.chrome.driver", resolved.getDriverPath());
+            LOG.info("Using chromedriver {} ({})", resolved.getDriverPath(), resolved.getSource());
+        }
+        return resolved;
+    }
+
+    // Called when a cached driver no longer matches the installed browser
+    public static synchronized void invalidate() {
+        if (resolved != null && resolved.getSource() == Source.MACHINE_CACHE) {
+            String browser = cacheKey(resolved.getBrowserPath());
+            try {
+                cacheFile().update(properties -> {
+                    properties.remove(browser + "." + DRIVER_PATH);
+                    properties.remove(browser + "." + DRIVER_VERSION);
+                    properties.remove(browser + "." + RESOLVED_AT);
+                });
+            } catch (IOException e) {
+                LOG.warn("Could not delete chromedriver cache: {}", e.getMessage());
+            }
+        }
+        resolved = null;
+    }
+
+    private static Resolution doResolve() {
+        String chromeBinary = blankToNull(System.getProperty("test.chrome.binary"));
+
+        if (Boolean.getBoolean("test.driver.offline")) {
+            String driverPath = configuredDriverPath();
+            if (driverPath == null) {
+                throw new IllegalStateException("Offline mode needs -Dtest.chromedriver.path pointing at an existing"
+                        + " chromedriver (and -Dtest.chrome.binary for a pinned Chrome)");
+            }
+            if (chromeBinary != null && !Files.isExecutable(Paths.get(chromeBinary))) {
+                throw new IllegalStateException("Pinned Chrome binary is not executable: " + chromeBinary);
+            }
+            return new Resolution(driverPath, chromeBinary, Source.OFFLINE);
+        }
+
+        String driverPath = configuredDriverPath();
+        if (driverPath != null) {
+            return new Resolution(driverPath, chromeBinary, Source.CONFIGURED);
+        }
+
+        LockedPropertiesFile cacheFile = cacheFile();
+        String browser = cacheKey(chromeBinary);
+        Resolution[] resolution = new Resolution[1];
+        try {
+            cacheFile.update(properties -> {
+                // Another fork may have resolved while we waited for the lock
+                String cached = readCache(properties, browser);
+                if (cached != null) {
+                    resolution[0] = new Resolution(cached, chromeBinary, Source.MACHINE_CACHE);
+                    return;
+                }
+
+                WebDriverManager manager = WebDriverManager.chromedriver();
+                if (chromeBinary != null) {
+                    // Match the driver to the pinned browser rather than whichever Chrome is installed
+                    manager.browserVersionDetectionCommand(chromeBinary + " --version");
+                }
+                manager.setup();
+                properties.setProperty(browser + "." + DRIVER_PATH, manager.getDownloadedDriverPath());
+                properties.setProperty(browser + "." + DRIVER_VERSION,
+                        String.valueOf(manager.getDownloadedDriverVersion()));
+                properties.setProperty(browser + "." + RESOLVED_AT, Instant.now().toString());
+                resolution[0] = new Resolution(manager.getDownloadedDriverPath(), chromeBinary,
+                        Source.WEBDRIVER_MANAGER);
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not use chromedriver cache at " + cacheFile.getPath(), e);
+        }
+        return resolution[0];
+    }
+
+    private static String configuredDriverPath() {
+        for (String key : new String[]{"test.chromedriver.path", "webdriver.chrome.driver"}) {
+            String value = blankToNull(System.getProperty(key));
+            // Surefire passes unresolved ${...} placeholders through literally
+            if (value != null && !value.startsWith("${") && Files.isExecutable(Paths.get(value))) {
+                return value;
+            }
+        }
+        return null;
+    }
+
+    private static String readCache(Properties properties, String browser) {
+        String driverPath = properties.getProperty(browser + "." + DRIVER_PATH);
+        String resolvedAt = properties.getProperty(browser + "." + RESOLVED_AT);
+        if (driverPath == null || resolvedAt == null || !Files.isExecutable(Paths.get(driverPath))) {
+            return null;
+        }
+        Duration ttl = Duration.ofHours(Long.getLong("test.driver.cache.ttl.hours", 24));
+        boolean fresh = Instant.parse(resolvedAt).plus(ttl).isAfter(Instant.now());
+        return fresh ? driverPath : null;
+    }
+
+    // A driver resolved for one Chrome says nothing about another
+    private static String cacheKey(String chromeBinary) {
+        return chromeBinary == null ? SYSTEM_BROWSER : Paths.get(chromeBinary).toAbsolutePath().normalize().toString();
+    }
+
+    private static LockedPropertiesFile cacheFile() {
+        String dir = blankToNull(System.getProperty("test.driver.cache.dir"));
+        Path base = dir != null ? Paths.get(dir) : Paths.get(System.getProperty("user.home"), ".cache", "janitri-qa");
+        return new LockedPropertiesFile(base.resolve("chromedriver.properties"),
+                "Resolved chromedriver binaries per browser");
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.trim().isEmpty() ? null : value.trim();
+    }
+
+    public enum Source {
+        OFFLINE,
+        CONFIGURED,
+        MACHINE_CACHE,
+        WEBDRIVER_MANAGER
+    }
+
+    public static final class Resolution {
+        private final String driverPath;
+        private final String browserPath;
+        private final Source source;
+
+        Resolution(String driverPath, String browserPath, Source source) {
+            this.driverPath = driverPath;
+            this.browserPath = browserPath;
+            this.source = source;
+        }
+
+        public String getDriverPath() {
+            return driverPath;
+        }
+
+        // Null unless a specific Chrome binary was pinned
+        public String getBrowserPath() {
+            return browserPath;
+        }
+
+        public Source getSource() {
+            return source;
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package com.janitri.base;
+
+import com.janitri.metrics.CommandTimingListener;
+import com.janitri.trace.Trace;
+import com.janitri.utils.CdpSupport;
+import com.janitri.utils.NetworkIdleTracker;
+import com.janitri.utils.NavigationTracker;
+import org.openqa.selenium.Dimension;
+import org.openqa.selenium.SessionNotCreatedException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chrome.ChromeDriver;
+import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.support.events.EventFiringDecorator;
+import org.openqa.selenium.support.events.WebDriverListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class DriverFactory {
+    private static final String DEFAULT_PERMISSIONS = "notifications";
+
+    private DriverFactory() {
+    }
+
+    public static WebDriver createDriver(String baseUrl) {
+        return createDriver(baseUrl, defaultOptions(baseUrl));
+    }
+
+    public static WebDriver createDriver(String baseUrl, ChromeOptions chromeOptions) {
+        // Suppress logging to reduce CDP warnings
+        System.setProperty("webdriver.chrome.silentOutput", "true");
+        System.setProperty("webdriver.chrome.logLevel", "OFF");
+
+        // Resolved once per JVM (and cached per machine) instead of on every session
+        DriverBinaries.Resolution binaries = DriverBinaries.resolve();
+        if (binaries.getBrowserPath() != null) {
+            chromeOptions.setBinary(binaries.getBrowserPath());
+        }
+
+        WebDriver driver;
+        try {
+            driver = new ChromeDriver(chromeOptions);
+        } catch (SessionNotCreatedException e) {
+            if (binaries.getSource() != DriverBinaries.Source.MACHINE_CACHE) {
+                throw e;
+            }
+            // Chrome was probably updated since the driver was cached; resolve again and retry once
+            Trace.warn("Cached chromedriver rejected by Chrome, resolving again: {}", e.getMessage());
+            DriverBinaries.invalidate();
+            DriverBinaries.resolve();
+            driver = new ChromeDriver(chromeOptions);
+        }
+
+        // Grant before the first navigation so the app never asks and never shows its permission dialog
+        grantPermissions(driver, baseUrl);
+        blockUrls(driver, TestConfig.blockedUrlPatterns());
+        trackNetwork(driver);
+
+        // Navigation tracking lets page objects keep element handles until the document changes
+        List<WebDriverListener> listeners = new ArrayList<>();
+        listeners.add(NavigationTracker.attach(driver));
+        if (TestConfig.commandMetricsEnabled()) {
+            // Every command through the returned driver (and elements it finds) is timed
+            listeners.add(new CommandTimingListener());
+        }
+        return new EventFiringDecorator<>(listeners.toArray(new WebDriverListener[0])).decorate(driver);
+    }
+
+    static void grantPermissions(WebDriver driver, String baseUrl) {
+        List<String> permissions = Arrays.asList(permissions());
+        Map<String, Object> params = new HashMap<>();
+        params.put("origin", CdpSupport.originOf(baseUrl));
+        params.put("permissions", permissions);
+        try {
+            CdpSupport.execute(driver, "Browser.grantPermissions", params);
+            Trace.event("Granted {} for {} via DevTools", permissions, params.get("origin"));
+        } catch (Exception e) {
+            Trace.warn("Could not grant browser permissions via DevTools: {}", e.getMessage());
+        }
+    }
+
+    // Subscribes before the first navigation so network-idle waits see the page's first requests
+    static void trackNetwork(WebDriver driver) {
+        if (!TestConfig.networkIdleEnabled()) {
+            return;
+        }
+        try {
+            NetworkIdleTracker.of(driver);
+        } catch (Exception e) {
+            Trace.warn("Could not track network activity via DevTools: {}", e.getMessage());
+        }
+    }
+
+    static String[] permissions() {
+        return System.getProperty("test.browser.permissions", DEFAULT_PERMISSIONS).split("\\s*,\\s*");
+    }
+
+    static void blockUrls(WebDriver driver, List<String> patterns) {
+        if (patterns.isEmpty()) {
+            return;
+        }
+        Map<String, Object> params = new HashMap<>();
+        params.put("urls", patterns);
+        try {
+            // Network.setBlockedURLs only takes effect once the Network domain is enabled
+            CdpSupport.execute(driver, "Network.enable", new HashMap<>());
+            CdpSupport.execute(driver, "Network.setBlockedURLs", params);
+            Trace.event("Blocking {} URL patterns via DevTools", patterns.size());
+        } catch (Exception e) {
+            Trace.warn("Could not block URLs via DevTools: {}", e.getMessage());
+        }
+    }
+
+    public static ChromeOptions defaultOptions(String baseUrl) {
+        ChromeOptions chromeOptions = new ChromeOptions();
+
+        // Enhanced options to handle permissions and notifications.
+        // --disable-notifications is deliberately absent: it would force the permission to "denied"
+        // and defeat the DevTools grant in createDriver.
+        chromeOptions.addArguments("--disable-popup-blocking");
+        chromeOptions.addArguments("--disable-web-security");
+        chromeOptions.addArguments("--allow-running-insecure-content");
+        chromeOptions.addArguments("--remote-allow-origins=*");
+        chromeOptions.addArguments("--disable-features=VizDisplayCompositor");
+        chromeOptions.addArguments("--disable-extensions");
+        chromeOptions.addArguments("--no-sandbox");
+        chromeOptions.addArguments("--disable-dev-shm-usage");
+
+        // Handle notification permissions more aggressively
+        chromeOptions.addArguments("--disable-permission-requests-ui");
+        chromeOptions.addArguments("--disable-background-networking");
+        chromeOptions.addArguments("--disable-background-timer-throttling");
+        chromeOptions.addArguments("--disable-client-side-phishing-detection");
+        chromeOptions.addArguments("--disable-default-apps");
+        chromeOptions.addArguments("--disable-hang-monitor");
+        chromeOptions.addArguments("--disable-prompt-on-repost");
+
+        // Console messages for failure artifacts, read back through the browser log
+        Map<String, Object> loggingPrefs = new HashMap<>();
+        loggingPrefs.put("browser", "ALL");
+        chromeOptions.setCapability("goog:loggingPrefs", loggingPrefs);
+
+        // Lightweight launch: no visible window, small fixed viewport, fewer processes
+        if (TestConfig.headless()) {
+            chromeOptions.addArguments("--headless=new");
+            chromeOptions.addArguments("--disable-gpu");
+            chromeOptions.addArguments("--mute-audio");
+        }
+        Dimension viewport = TestConfig.viewport();
+        if (viewport != null) {
+            chromeOptions.addArguments("--window-size=" + viewport.getWidth() + "," + viewport.getHeight());
+        }
+
+        // Set notification permission preferences
+        Map<String, Object> prefs = new HashMap<>();
+        prefs.put("profile.default_content_setting_values.notifications", 1); // Allow notifications
+        prefs.put("profile.default_content_settings.popups", 0);
+        prefs.put("profile.managed_default_content_settings.notifications", 1);
+        chromeOptions.setExperimentalOption("prefs", prefs);
+
+        // Set notification permission at content settings level
+        chromeOptions.addArguments("--content-settings-pattern=*");
+        chromeOptions.addArguments("--content-settings-exceptions-notifications=" + baseUrl + ",*,1");
+
+        return chromeOptions;
+    }
+}
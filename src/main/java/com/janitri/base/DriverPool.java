@@ -0,0 +1,224 @@
+package com.janitri.base;
+
+import com.janitri.trace.Trace;
+import org.openqa.selenium.Dimension;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.NoAlertPresentException;
+import org.openqa.selenium.WebDriver;
+
+import java.time.Duration;
+import java.util.Deque;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps warm Chrome sessions alive between test methods. A session is leased to one test at a time
+ * and reset (storage, cookies, navigation back to the base URL) when it is released. With
+ * {@code -Dtest.browser.contexts=true} each lease gets a fresh browser context instead, which is discarded
+ * on release.
+ */
+public class DriverPool {
+    private static final Duration LEASE_TIMEOUT = Duration.ofMinutes(5);
+
+    private static final DriverPool INSTANCE = new DriverPool(TestConfig.poolSize());
+
+    private final int maxSize;
+    private final Semaphore permits;
+    private final Deque<WebDriver> idle = new ConcurrentLinkedDeque<>();
+    private final Set<WebDriver> sessions = ConcurrentHashMap.newKeySet();
+    private final Map<WebDriver, BrowserContexts> contexts = new ConcurrentHashMap<>();
+
+    DriverPool(int maxSize) {
+        this.maxSize = Math.max(1, maxSize);
+        this.permits = new Semaphore(this.maxSize, true);
+        Runtime.getRuntime().addShutdownHook(new Thread(this::shutdown, "driver-pool-shutdown"));
+    }
+
+    public static DriverPool getInstance() {
+        return INSTANCE;
+    }
+
+    // A pool separate from the suite's, e.g. one session per virtual user in a load run
+    public static DriverPool create(int maxSize) {
+        return new DriverPool(maxSize);
+    }
+
+    public WebDriver lease(String baseUrl) {
+        try {
+            if (!permits.tryAcquire(LEASE_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS)) {
+                throw new IllegalStateException("No browser session became available within " + LEASE_TIMEOUT
+                        + " (pool size " + maxSize + ")");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a browser session", e);
+        }
+
+        try {
+            WebDriver driver;
+            while ((driver = idle.pollFirst()) != null) {
+                if (isHealthy(driver) && openContext(driver, baseUrl)) {
+                    return driver;
+                }
+                Trace.warn("Evicting unhealthy browser session from pool");
+                quietlyQuit(driver);
+            }
+            return createSession(baseUrl);
+        } catch (RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    public void release(WebDriver driver, String baseUrl) {
+        if (driver == null) {
+            return;
+        }
+        try {
+            BrowserContexts isolation = contexts.get(driver);
+            if (isolation != null) {
+                isolation.dispose();
+            } else {
+                reset(driver, baseUrl);
+            }
+            idle.offerFirst(driver);
+        } catch (Exception e) {
+            Trace.warn("Could not reset browser session, evicting it: {}", e.getMessage());
+            quietlyQuit(driver);
+        } finally {
+            permits.release();
+        }
+    }
+
+    // Resets a leased session in place, keeping the lease; false when the browser cannot be salvaged
+    public boolean recover(WebDriver driver, String baseUrl) {
+        if (driver == null || !isHealthy(driver)) {
+            return false;
+        }
+        try {
+            BrowserContexts isolation = contexts.get(driver);
+            if (isolation != null) {
+                isolation.open(baseUrl);
+            } else {
+                reset(driver, baseUrl);
+            }
+            return true;
+        } catch (Exception e) {
+            Trace.warn("Could not recover browser session in place: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    public void evict(WebDriver driver) {
+        if (driver == null) {
+            return;
+        }
+        quietlyQuit(driver);
+        permits.release();
+    }
+
+    public void shutdown() {
+        WebDriver driver;
+        while ((driver = idle.pollFirst()) != null) {
+            quietlyQuit(driver);
+        }
+        // Sessions still leased at shutdown belong to aborted tests
+        for (WebDriver leased : sessions) {
+            quietlyQuit(leased);
+        }
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    private WebDriver createSession(String baseUrl) {
+        WebDriver driver = DriverFactory.createDriver(baseUrl);
+        sessions.add(driver);
+        try {
+            Dimension viewport = TestConfig.viewport();
+            if (viewport != null) {
+                // Fixed small viewport in lightweight/headless mode; maximize() means nothing without a screen
+                driver.manage().window().setSize(viewport);
+            } else {
+                driver.manage().window().maximize();
+            }
+            driver.manage().timeouts().implicitlyWait(Duration.ofSeconds(10));
+            if (TestConfig.browserContexts()) {
+                BrowserContexts isolation = BrowserContexts.attach(driver);
+                contexts.put(driver, isolation);
+                isolation.open(baseUrl);
+            } else {
+                driver.get(baseUrl);
+            }
+            return driver;
+        } catch (RuntimeException e) {
+            quietlyQuit(driver);
+            throw e;
+        }
+    }
+
+    // A reused session in context mode needs a new context before the next test; false when that fails
+    private boolean openContext(WebDriver driver, String baseUrl) {
+        BrowserContexts isolation = contexts.get(driver);
+        if (isolation == null) {
+            return true;
+        }
+        try {
+            isolation.open(baseUrl);
+            return true;
+        } catch (Exception e) {
+            Trace.warn("Could not open a browser context: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    private boolean isHealthy(WebDriver driver) {
+        try {
+            // Cheap round trip that fails fast when the browser or chromedriver has died
+            driver.getWindowHandle();
+            return true;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    private void reset(WebDriver driver, String baseUrl) {
+        // An alert left open by the previous test blocks every other command
+        try {
+            driver.switchTo().alert().dismiss();
+        } catch (NoAlertPresentException e) {
+            // Nothing to dismiss
+        }
+
+        String current = driver.getWindowHandle();
+        for (String handle : driver.getWindowHandles()) {
+            if (!handle.equals(current)) {
+                driver.switchTo().window(handle).close();
+            }
+        }
+        driver.switchTo().window(current);
+
+        ((JavascriptExecutor) driver).executeScript(
+                "try { window.localStorage.clear(); window.sessionStorage.clear(); } catch (e) {}");
+        driver.manage().deleteAllCookies();
+        driver.get(baseUrl);
+    }
+
+    private void quietlyQuit(WebDriver driver) {
+        sessions.remove(driver);
+        BrowserContexts isolation = contexts.remove(driver);
+        if (isolation != null) {
+            isolation.close();
+        }
+        try {
+            driver.quit();
+        } catch (Exception e) {
+            // Session is already gone
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.janitri.base;
+
+import org.openqa.selenium.WebDriver;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * Thread-confined registry of test sessions. TestNG runs a test method together with its
+ * {@code @BeforeMethod}/{@code @AfterMethod} hooks on one worker thread, so each invocation sees only
+ * its own browser even when methods run in parallel.
+ */
+public class DriverRegistry {
+    private static final ThreadLocal<TestSession> CURRENT = new ThreadLocal<>();
+    // Recovered browsers kept leased between a failed attempt and its retry, by the thread that will run it.
+    // Not thread-local, so browsers whose retry never comes can still be released from another thread.
+    private static final Map<Thread, Retained> RETAINED = new ConcurrentHashMap<>();
+
+    private DriverRegistry() {
+    }
+
+    public static void register(TestSession session) {
+        if (CURRENT.get() != null) {
+            throw new IllegalStateException("Thread " + Thread.currentThread().getName()
+                    + " already owns a test session");
+        }
+        CURRENT.set(session);
+    }
+
+    public static TestSession current() {
+        TestSession session = CURRENT.get();
+        if (session == null) {
+            throw new IllegalStateException("No test session registered for thread "
+                    + Thread.currentThread().getName());
+        }
+        return session;
+    }
+
+    public static boolean hasCurrent() {
+        return CURRENT.get() != null;
+    }
+
+    public static TestSession unregister() {
+        TestSession session = CURRENT.get();
+        CURRENT.remove();
+        return session;
+    }
+
+    public static void retain(String testKey, WebDriver driver) {
+        RETAINED.put(Thread.currentThread(), new Retained(testKey, driver));
+    }
+
+    // The browser this thread kept for a retry, or null to lease a fresh one
+    public static Retained takeRetained() {
+        return RETAINED.remove(Thread.currentThread());
+    }
+
+    // Removes and returns the browsers kept for the matching tests on any thread
+    public static List<WebDriver> takeRetained(Predicate<String> testKeys) {
+        List<WebDriver> drivers = new ArrayList<>();
+        for (Iterator<Retained> it = RETAINED.values().iterator(); it.hasNext(); ) {
+            Retained retained = it.next();
+            if (testKeys.test(retained.getTestKey())) {
+                it.remove();
+                drivers.add(retained.getDriver());
+            }
+        }
+        return drivers;
+    }
+
+    public static final class Retained {
+        private final String testKey;
+        private final WebDriver driver;
+
+        private Retained(String testKey, WebDriver driver) {
+            this.testKey = testKey;
+            this.driver = driver;
+        }
+
+        // Class#method of the test whose retry the browser is kept for
+        public String getTestKey() {
+            return testKey;
+        }
+
+        public WebDriver getDriver() {
+            return driver;
+        }
+    }
+}
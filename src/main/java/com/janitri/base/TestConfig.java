@@ -0,0 +1,193 @@
+package com.janitri.base;
+
+import org.openqa.selenium.Dimension;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Central place for the -D switches that tune how the suite runs.
+ */
+public class TestConfig {
+    private static final Logger LOG = LoggerFactory.getLogger(TestConfig.class);
+
+    public static final String DEFAULT_BASE_URL = "https://dev-dash.janitri.in/";
+    public static final Dimension DEFAULT_LIGHTWEIGHT_VIEWPORT = new Dimension(1280, 800);
+
+    // Assets the login tests never assert on. SVG stays allowed because the logo is checked for visibility.
+    public static final List<String> DEFAULT_BLOCKED_URLS = Collections.unmodifiableList(Arrays.asList(
+            "*.png", "*.jpg", "*.jpeg", "*.gif", "*.webp", "*.ico",
+            "*.woff", "*.woff2", "*.ttf", "*.otf",
+            "*.mp4", "*.webm",
+            "*fonts.googleapis.com*", "*fonts.gstatic.com*",
+            "*google-analytics.com*", "*googletagmanager.com*", "*doubleclick.net*",
+            "*hotjar.com*", "*connect.facebook.net*", "*clarity.ms*"));
+
+    // Set when the suite starts the local stand-in server; wins over -Dtest.base.url
+    private static volatile String baseUrlOverride;
+
+    private TestConfig() {
+    }
+
+    public static String baseUrl() {
+        String override = baseUrlOverride;
+        if (override != null) {
+            return override;
+        }
+        String configured = System.getProperty("test.base.url", "").trim();
+        return configured.isEmpty() ? DEFAULT_BASE_URL : configured;
+    }
+
+    public static void overrideBaseUrl(String baseUrl) {
+        baseUrlOverride = baseUrl;
+    }
+
+    public static boolean useLocalServer() {
+        return Boolean.getBoolean("test.local.server");
+    }
+
+    public static int localServerPort() {
+        return Integer.getInteger("test.local.server.port", 0);
+    }
+
+    public static boolean localServerRequiresNotifications() {
+        return Boolean.parseBoolean(System.getProperty("test.local.require.notifications", "true"));
+    }
+
+    // Substring of the login XHR URL that LoginApiStub intercepts
+    public static String loginApiPath() {
+        return System.getProperty("test.login.api.path", "/login");
+    }
+
+    // Forces every stubbed login call through to the real backend, for end-to-end runs
+    public static boolean loginApiPassThrough() {
+        return Boolean.getBoolean("test.login.api.passthrough");
+    }
+
+    // Lightweight mode: new-headless, a fixed small viewport and blocked static/third-party assets
+    public static boolean lightweight() {
+        return Boolean.getBoolean("test.browser.lightweight");
+    }
+
+    public static boolean headless() {
+        return lightweight() || Boolean.getBoolean("test.browser.headless");
+    }
+
+    // Null means maximize the window as before
+    public static Dimension viewport() {
+        String value = System.getProperty("test.browser.viewport", "").trim().toLowerCase();
+        if (!value.isEmpty()) {
+            String[] parts = value.split("x");
+            try {
+                if (parts.length == 2) {
+                    return new Dimension(Integer.parseInt(parts[0].trim()), Integer.parseInt(parts[1].trim()));
+                }
+            } catch (NumberFormatException e) {
+                // Fall through to the defaults below
+            }
+            LOG.warn("Ignoring malformed -Dtest.browser.viewport={}, expected WIDTHxHEIGHT", value);
+        }
+        return headless() ? DEFAULT_LIGHTWEIGHT_VIEWPORT : null;
+    }
+
+    // One throwaway browser context per test inside the pooled browsers, instead of resetting state in place
+    public static boolean browserContexts() {
+        return Boolean.getBoolean("test.browser.contexts");
+    }
+
+    // Comma separated Network.setBlockedURLs patterns; "none" disables blocking in lightweight mode
+    public static List<String> blockedUrlPatterns() {
+        String value = System.getProperty("test.browser.blocked.urls", "").trim();
+        if (value.equalsIgnoreCase("none")) {
+            return Collections.emptyList();
+        }
+        if (value.isEmpty()) {
+            return lightweight() ? DEFAULT_BLOCKED_URLS : Collections.<String>emptyList();
+        }
+        List<String> patterns = new ArrayList<>();
+        for (String pattern : value.split("\\s*,\\s*")) {
+            if (!pattern.isEmpty()) {
+                patterns.add(pattern);
+            }
+        }
+        return patterns;
+    }
+
+    // Network-idle readiness: DevTools request tracking, how long the network must stay quiet and how many
+    // requests may still be open (long polls) for the page to count as settled
+    public static boolean networkIdleEnabled() {
+        return Boolean.parseBoolean(System.getProperty("test.network.idle", "true"));
+    }
+
+    public static long networkQuietMillis() {
+        return Long.getLong("test.network.quiet.ms", 500L);
+    }
+
+    public static int networkIdleMaxInFlight() {
+        return Math.max(0, Integer.getInteger("test.network.idle.max.inflight", 0));
+    }
+
+    // Workbooks and CSVs feeding the data-driven login matrix, see LoginCases
+    public static String loginMatrixSources() {
+        return System.getProperty("test.login.matrix",
+                "Janitri_Login_Manual_TestCases.xlsx,classpath:data/login-matrix.csv");
+    }
+
+    public static boolean commandMetricsEnabled() {
+        return Boolean.parseBoolean(System.getProperty("test.metrics.commands", "true"));
+    }
+
+    public static long localLatencyMillis() {
+        return Long.getLong("test.local.latency.ms", 0L);
+    }
+
+    // "auto" (the default) means one worker per available core
+    public static int threadCount() {
+        return positiveInt("test.threads", Runtime.getRuntime().availableProcessors());
+    }
+
+    // Run-to-run state (durations, flakiness) shared by every run on this machine
+    public static Path historyDir() {
+        return Paths.get(System.getProperty("test.history.dir", ".test-history"));
+    }
+
+    // Extra attempts for a failing browser test; retries are off unless asked for
+    public static int retryCount() {
+        return Math.max(0, Integer.getInteger("test.retry.count", 0));
+    }
+
+    // One shard per machine or CI job
+    public static int shardCount() {
+        return positiveInt("test.shard.count", 1);
+    }
+
+    // 0-based index of this run's shard; -Dtest.shard.index itself is 1-based
+    public static int shardIndex() {
+        int index = positiveInt("test.shard.index", 1);
+        if (index > shardCount()) {
+            throw new IllegalArgumentException("test.shard.index " + index + " is outside test.shard.count "
+                    + shardCount());
+        }
+        return index - 1;
+    }
+
+    public static int poolSize() {
+        return positiveInt("test.pool.size", threadCount());
+    }
+
+    static int positiveInt(String key, int defaultValue) {
+        String value = System.getProperty(key, "").trim();
+        try {
+            int parsed = Integer.parseInt(value);
+            return parsed > 0 ? parsed : defaultValue;
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+}
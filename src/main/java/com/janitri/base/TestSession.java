@@ -0,0 +1,75 @@
+package com.janitri.base;
+
+import com.janitri.trace.Trace;
+import com.janitri.utils.WaitEngine;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.support.ui.WebDriverWait;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Everything a single test invocation owns: its leased browser, waits and page objects.
+ * A session is only ever touched by the thread running that invocation.
+ */
+public class TestSession {
+    private final WebDriver driver;
+    private final WebDriverWait wait;
+    private final WaitEngine waitEngine;
+    private final Map<Class<?>, Object> pages = new HashMap<>();
+    private final Deque<AutoCloseable> resources = new ArrayDeque<>();
+
+    public TestSession(WebDriver driver) {
+        this.driver = driver;
+        this.wait = new WebDriverWait(driver, Duration.ofSeconds(15));
+        this.waitEngine = new WaitEngine(driver);
+    }
+
+    public WebDriver getDriver() {
+        return driver;
+    }
+
+    public WebDriverWait getWait() {
+        return wait;
+    }
+
+    public WaitEngine getWaitEngine() {
+        return waitEngine;
+    }
+
+    public <P> P page(Class<P> type, Function<WebDriver, P> factory) {
+        return type.cast(pages.computeIfAbsent(type, key -> factory.apply(driver)));
+    }
+
+    public <P> P page(Class<P> type) {
+        Object page = pages.get(type);
+        if (page == null) {
+            throw new IllegalStateException(type.getSimpleName() + " was not registered for this test");
+        }
+        return type.cast(page);
+    }
+
+    public void registerPage(Object page) {
+        pages.put(page.getClass(), page);
+    }
+
+    // Per-test browser hooks (interceptors, listeners) that must be undone before the driver is reused
+    public <R extends AutoCloseable> R own(R resource) {
+        resources.push(resource);
+        return resource;
+    }
+
+    public void closeResources() {
+        while (!resources.isEmpty()) {
+            try {
+                resources.pop().close();
+            } catch (Exception e) {
+                Trace.warn("Could not close test resource: {}", e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.janitri.data;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * RFC 4180 style CSV reader: the first record is the header, fields may be quoted, and quoted fields may
+ * contain commas, doubled quotes and line breaks.
+ */
+public class CsvRowReader implements RowReader {
+    private final BufferedReader reader;
+    private final String source;
+    private final List<String> headers;
+    private Map<String, String> next;
+
+    public CsvRowReader(Reader reader, String source) {
+        this.reader = reader instanceof BufferedReader ? (BufferedReader) reader : new BufferedReader(reader);
+        this.source = source;
+        List<String> header = readRecord();
+        this.headers = header == null ? new ArrayList<>() : header;
+        // Spreadsheet exports often start with a byte order mark
+        if (!headers.isEmpty() && headers.get(0).startsWith("\uFEFF")) {
+            headers.set(0, headers.get(0).substring(1));
+        }
+        this.next = advance();
+    }
+
+    @Override
+    public boolean hasNext() {
+        return next != null;
+    }
+
+    @Override
+    public Map<String, String> next() {
+        if (next == null) {
+            throw new NoSuchElementException();
+        }
+        Map<String, String> row = next;
+        next = advance();
+        return row;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private Map<String, String> advance() {
+        List<String> record;
+        while ((record = readRecord()) != null) {
+            if (record.size() == 1 && record.get(0).trim().isEmpty()) {
+                continue;
+            }
+            Map<String, String> row = new LinkedHashMap<>();
+            for (int i = 0; i < headers.size(); i++) {
+                row.put(headers.get(i).trim(), i < record.size() ? record.get(i) : "");
+            }
+            row.put(SOURCE_COLUMN, source);
+            return row;
+        }
+        closeQuietly();
+        return null;
+    }
+
+    private List<String> readRecord() {
+        try {
+            int c = reader.read();
+            if (c == -1) {
+                return null;
+            }
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            while (c != -1) {
+                if (quoted) {
+                    if (c == '"') {
+                        reader.mark(1);
+                        int peek = reader.read();
+                        if (peek == '"') {
+                            field.append('"');
+                        } else {
+                            quoted = false;
+                            reader.reset();
+                        }
+                    } else {
+                        field.append((char) c);
+                    }
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else if (c == '\n') {
+                    break;
+                } else if (c != '\r') {
+                    field.append((char) c);
+                }
+                c = reader.read();
+            }
+            fields.add(field.toString());
+            return fields;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read CSV " + source, e);
+        }
+    }
+
+    private void closeQuietly() {
+        try {
+            reader.close();
+        } catch (IOException e) {
+            // Nothing left to read anyway
+        }
+    }
+}
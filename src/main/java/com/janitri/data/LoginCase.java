@@ -0,0 +1,191 @@
+package com.janitri.data;
+
+import com.janitri.pages.LoginMessages;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * One credential case from the manual test-case workbook (or a CSV in the same layout): the values to type
+ * and what the login page should do with them.
+ */
+public final class LoginCase {
+    public static final String ID_COLUMN = "Test Case ID";
+    public static final String TITLE_COLUMN = "Test Case Title";
+    public static final String CATEGORY_COLUMN = "Test Category";
+    public static final String EXPECTED_COLUMN = "Expected Result";
+    public static final String DATA_COLUMN = "Test Data";
+
+    private static final Pattern LINE_BREAK = Pattern.compile("(?i)<br\\s*/?>|\\r?\\n");
+    private static final Pattern GENERATED_LENGTH = Pattern.compile(
+            "\\(\\s*(\\d+)\\s*(?:character string|characters|chars?)(?:\\s+max)?\\s*\\)", Pattern.CASE_INSENSITIVE);
+    private static final int UNSPECIFIED_MAX_LENGTH = 256;
+
+    public enum Outcome {
+        // The login is accepted and the user leaves the login page
+        SUCCESS,
+        // The backend rejects the credentials and the page shows an error
+        REJECTED,
+        // The browser or page refuses to submit the form
+        VALIDATION,
+        // Any graceful answer is fine; the page must survive the input
+        HANDLED
+    }
+
+    private final String id;
+    private final String title;
+    private final String category;
+    private final String source;
+    private final String userId;
+    private final String password;
+    private final String expectedResult;
+    private final Outcome expectedOutcome;
+    private final String expectedMessage;
+
+    public LoginCase(String id, String title, String category, String source, String userId, String password,
+                     String expectedResult) {
+        this.id = id;
+        this.title = title;
+        this.category = category;
+        this.source = source;
+        this.userId = userId;
+        this.password = password;
+        this.expectedResult = expectedResult;
+        this.expectedMessage = expectedMessageOf(expectedResult);
+        this.expectedOutcome = outcomeOf(expectedResult, expectedMessage);
+    }
+
+    // Null for rows that carry no UserID/Password pair (UI, performance and toggle cases)
+    public static LoginCase fromRow(Map<String, String> row) {
+        Map<String, String> data = parseTestData(row.getOrDefault(DATA_COLUMN, ""));
+        if (!data.containsKey("userid") || !data.containsKey("password")) {
+            return null;
+        }
+        return new LoginCase(
+                row.getOrDefault(ID_COLUMN, "").trim(),
+                row.getOrDefault(TITLE_COLUMN, "").trim(),
+                row.getOrDefault(CATEGORY_COLUMN, "").trim(),
+                row.getOrDefault(RowReader.SOURCE_COLUMN, ""),
+                expand(data.get("userid"), true),
+                expand(data.get("password"), false),
+                row.getOrDefault(EXPECTED_COLUMN, "").trim());
+    }
+
+    // "UserID: a@b.co<br>Password: secret" -> {userid=a@b.co, password=secret}
+    static Map<String, String> parseTestData(String testData) {
+        Map<String, String> values = new HashMap<>();
+        for (String line : LINE_BREAK.split(testData)) {
+            int colon = line.indexOf(':');
+            if (colon > 0) {
+                String key = line.substring(0, colon).trim().toLowerCase(Locale.ROOT).replaceAll("[\\s_-]", "");
+                values.put(key, line.substring(colon + 1).trim());
+            }
+        }
+        return values;
+    }
+
+    // Turns the workbook's descriptive placeholders into concrete input
+    static String expand(String value, boolean emailShaped) {
+        String trimmed = value.trim();
+        if (trimmed.equalsIgnoreCase("(empty)")) {
+            return "";
+        }
+        int length = -1;
+        Matcher matcher = GENERATED_LENGTH.matcher(trimmed);
+        if (matcher.matches()) {
+            length = Integer.parseInt(matcher.group(1));
+        } else if (trimmed.equalsIgnoreCase("(max chars)")) {
+            length = UNSPECIFIED_MAX_LENGTH;
+        }
+        if (length < 0) {
+            return trimmed;
+        }
+        String domain = "@test.com";
+        if (emailShaped && length > domain.length()) {
+            return repeat('a', length - domain.length()) + domain;
+        }
+        return repeat(emailShaped ? 'a' : 'P', length);
+    }
+
+    private static String repeat(char c, int count) {
+        StringBuilder builder = new StringBuilder(count);
+        for (int i = 0; i < count; i++) {
+            builder.append(c);
+        }
+        return builder.toString();
+    }
+
+    private static String expectedMessageOf(String expectedResult) {
+        String lower = expectedResult.toLowerCase(Locale.ROOT);
+        if (lower.contains(LoginMessages.INVALID_CREDENTIALS.toLowerCase(Locale.ROOT))) {
+            return LoginMessages.INVALID_CREDENTIALS;
+        }
+        if (lower.contains(LoginMessages.USER_NOT_ALLOWED.toLowerCase(Locale.ROOT))) {
+            return LoginMessages.USER_NOT_ALLOWED;
+        }
+        return null;
+    }
+
+    private static Outcome outcomeOf(String expectedResult, String expectedMessage) {
+        String lower = expectedResult.toLowerCase(Locale.ROOT);
+        if (expectedMessage != null) {
+            return Outcome.REJECTED;
+        }
+        if (lower.contains("logged in") || lower.contains("redirected to dashboard")) {
+            return Outcome.SUCCESS;
+        }
+        if (lower.contains("accept") || lower.contains("handle") || lower.contains("should not execute")) {
+            return Outcome.HANDLED;
+        }
+        if (lower.contains("validation") && !lower.contains("error message")) {
+            return Outcome.VALIDATION;
+        }
+        return Outcome.REJECTED;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public String getPassword() {
+        return password;
+    }
+
+    public String getExpectedResult() {
+        return expectedResult;
+    }
+
+    public Outcome getExpectedOutcome() {
+        return expectedOutcome;
+    }
+
+    // One of the LoginMessages constants, or null when any error text is acceptable
+    public String getExpectedMessage() {
+        return expectedMessage;
+    }
+
+    @Override
+    public String toString() {
+        // Generated inputs can be thousands of characters, so keep them out of report names
+        return id + " " + title + " [" + source + "]";
+    }
+}
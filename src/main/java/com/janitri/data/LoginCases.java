@@ -0,0 +1,149 @@
+package com.janitri.data;
+
+import com.janitri.trace.Trace;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Loads {@link LoginCase}s from workbooks and CSV files. Sources are file paths, or
+ * {@code classpath:} resources; the format is picked from the extension. Sources are opened one after the
+ * other as rows are asked for, and each is closed once its last row has been read.
+ */
+public class LoginCases {
+    private static final String CLASSPATH_PREFIX = "classpath:";
+
+    private LoginCases() {
+    }
+
+    // Comma separated list of sources, read in order
+    public static List<LoginCase> load(String sources) {
+        List<LoginCase> cases = new ArrayList<>();
+        iterate(sources).forEachRemaining(cases::add);
+        return cases;
+    }
+
+    // Reads the sources one row at a time; rows without a credential pair are skipped
+    public static Iterator<LoginCase> iterate(String sources) {
+        return new CaseIterator(sources.split("\\s*,\\s*"));
+    }
+
+    static RowReader open(String source) throws IOException {
+        boolean csv = source.toLowerCase().endsWith(".csv");
+        if (source.startsWith(CLASSPATH_PREFIX)) {
+            String resource = source.substring(CLASSPATH_PREFIX.length());
+            InputStream in = LoginCases.class.getClassLoader().getResourceAsStream(resource);
+            if (in == null) {
+                return null;
+            }
+            if (!csv) {
+                in.close();
+                throw new IllegalArgumentException("Only CSV sources can be read from the classpath: " + source);
+            }
+            return new CsvRowReader(new InputStreamReader(in, StandardCharsets.UTF_8), resource);
+        }
+
+        Path path = Paths.get(source);
+        if (!Files.isRegularFile(path)) {
+            return null;
+        }
+        if (csv) {
+            return new CsvRowReader(Files.newBufferedReader(path, StandardCharsets.UTF_8), path.getFileName().toString());
+        }
+        return new XlsxRowReader(path);
+    }
+
+    private static final class CaseIterator implements Iterator<LoginCase> {
+        private final String[] sources;
+        private int nextSource;
+        private String source;
+        private RowReader rows;
+        private LoginCase next;
+
+        CaseIterator(String[] sources) {
+            this.sources = sources;
+        }
+
+        @Override
+        public boolean hasNext() {
+            try {
+                while (next == null) {
+                    if (rows == null && !openNextSource()) {
+                        return false;
+                    }
+                    if (rows.hasNext()) {
+                        next = LoginCase.fromRow(rows.next());
+                    } else {
+                        closeSource();
+                    }
+                }
+                return true;
+            } catch (RuntimeException e) {
+                closeQuietly();
+                throw e;
+            }
+        }
+
+        @Override
+        public LoginCase next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            LoginCase loginCase = next;
+            next = null;
+            return loginCase;
+        }
+
+        private boolean openNextSource() {
+            while (nextSource < sources.length) {
+                source = sources[nextSource++];
+                if (source.isEmpty()) {
+                    continue;
+                }
+                try {
+                    rows = open(source);
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Could not read login cases from " + source, e);
+                }
+                if (rows != null) {
+                    return true;
+                }
+                Trace.warn("Login case source not found, skipping: {}", source);
+            }
+            return false;
+        }
+
+        private void closeSource() {
+            RowReader closing = rows;
+            rows = null;
+            try {
+                closing.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not read login cases from " + source, e);
+            }
+        }
+
+        private void closeQuietly() {
+            if (rows == null) {
+                return;
+            }
+            try {
+                rows.close();
+            } catch (IOException e) {
+                // Already failing with the original error
+            } finally {
+                rows = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.janitri.data;
+
+import java.io.Closeable;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Streams the rows of a tabular test-case source one at a time. Each row maps header names to cell text;
+ * readers close their underlying file once the last row has been returned.
+ */
+public interface RowReader extends Iterator<Map<String, String>>, Closeable {
+
+    // Set on every row so failures can point back at the sheet (or file) a case came from
+    String SOURCE_COLUMN = "_source";
+}
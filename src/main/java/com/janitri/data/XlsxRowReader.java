@@ -0,0 +1,317 @@
+package com.janitri.data;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Streams rows out of an .xlsx workbook with StAX, without loading whole sheets (or a spreadsheet library)
+ * into memory. Only the shared-string table is kept. Every sheet is read in workbook order, and the first
+ * row of each sheet is its header.
+ */
+public class XlsxRowReader implements RowReader {
+    private static final String WORKBOOK = "xl/workbook.xml";
+    private static final String WORKBOOK_RELS = "xl/_rels/workbook.xml.rels";
+    private static final String SHARED_STRINGS = "xl/sharedStrings.xml";
+
+    private final XMLInputFactory factory;
+    private final ZipFile zip;
+    private final List<String> sharedStrings;
+    private final Deque<String[]> sheets;
+
+    private XMLStreamReader sheet;
+    private InputStream sheetStream;
+    private String sheetName;
+    private List<String> headers;
+    private Map<String, String> next;
+
+    public XlsxRowReader(Path workbook) throws IOException {
+        this.factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        this.zip = new ZipFile(workbook.toFile());
+        try {
+            this.sharedStrings = readSharedStrings();
+            this.sheets = readSheetList();
+            this.next = advance();
+        } catch (IOException | RuntimeException e) {
+            zip.close();
+            throw e;
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        return next != null;
+    }
+
+    @Override
+    public Map<String, String> next() {
+        if (next == null) {
+            throw new NoSuchElementException();
+        }
+        Map<String, String> row = next;
+        next = advance();
+        return row;
+    }
+
+    @Override
+    public void close() throws IOException {
+        closeSheet();
+        zip.close();
+    }
+
+    private Map<String, String> advance() {
+        try {
+            while (true) {
+                if (sheet == null && !openNextSheet()) {
+                    close();
+                    return null;
+                }
+                Map<Integer, String> cells = readRow();
+                if (cells == null) {
+                    closeSheet();
+                    continue;
+                }
+                if (headers == null) {
+                    headers = toHeaders(cells);
+                    continue;
+                }
+                Map<String, String> row = new LinkedHashMap<>();
+                boolean blank = true;
+                for (int i = 0; i < headers.size(); i++) {
+                    String value = cells.getOrDefault(i, "");
+                    blank &= value.trim().isEmpty();
+                    if (!headers.get(i).isEmpty()) {
+                        row.put(headers.get(i), value);
+                    }
+                }
+                if (!blank) {
+                    row.put(SOURCE_COLUMN, sheetName);
+                    return row;
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (XMLStreamException e) {
+            throw new IllegalStateException("Malformed sheet '" + sheetName + "'", e);
+        }
+    }
+
+    private boolean openNextSheet() throws IOException, XMLStreamException {
+        String[] entry = sheets.pollFirst();
+        if (entry == null) {
+            return false;
+        }
+        ZipEntry zipEntry = zip.getEntry(entry[1]);
+        if (zipEntry == null) {
+            return openNextSheet();
+        }
+        sheetName = entry[0];
+        sheetStream = zip.getInputStream(zipEntry);
+        sheet = factory.createXMLStreamReader(sheetStream);
+        headers = null;
+        return true;
+    }
+
+    private void closeSheet() throws IOException {
+        if (sheet != null) {
+            try {
+                sheet.close();
+            } catch (XMLStreamException e) {
+                // The stream is closed below regardless
+            }
+            sheet = null;
+        }
+        if (sheetStream != null) {
+            sheetStream.close();
+            sheetStream = null;
+        }
+    }
+
+    // Returns the next <row> as column index -> text, or null at the end of the sheet
+    private Map<Integer, String> readRow() throws XMLStreamException {
+        while (sheet.hasNext()) {
+            if (sheet.next() == XMLStreamConstants.START_ELEMENT && "row".equals(sheet.getLocalName())) {
+                Map<Integer, String> cells = new HashMap<>();
+                int column = 0;
+                while (sheet.hasNext()) {
+                    int event = sheet.next();
+                    if (event == XMLStreamConstants.END_ELEMENT && "row".equals(sheet.getLocalName())) {
+                        return cells;
+                    }
+                    if (event == XMLStreamConstants.START_ELEMENT && "c".equals(sheet.getLocalName())) {
+                        String ref = sheet.getAttributeValue(null, "r");
+                        column = ref != null ? columnIndex(ref) : column;
+                        String value = readCell(sheet.getAttributeValue(null, "t"));
+                        if (!value.isEmpty()) {
+                            cells.put(column, value);
+                        }
+                        column++;
+                    }
+                }
+                return cells;
+            }
+        }
+        return null;
+    }
+
+    private String readCell(String type) throws XMLStreamException {
+        StringBuilder value = new StringBuilder();
+        boolean inValue = false;
+        while (sheet.hasNext()) {
+            int event = sheet.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                String name = sheet.getLocalName();
+                inValue = "v".equals(name) || "t".equals(name);
+            } else if (event == XMLStreamConstants.CHARACTERS || event == XMLStreamConstants.CDATA) {
+                if (inValue) {
+                    value.append(sheet.getText());
+                }
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                if ("c".equals(sheet.getLocalName())) {
+                    break;
+                }
+                inValue = false;
+            }
+        }
+        if ("s".equals(type)) {
+            int index = Integer.parseInt(value.toString().trim());
+            return index < sharedStrings.size() ? sharedStrings.get(index) : "";
+        }
+        if ("b".equals(type)) {
+            return "1".equals(value.toString().trim()) ? "TRUE" : "FALSE";
+        }
+        return value.toString();
+    }
+
+    private List<String> readSharedStrings() throws IOException {
+        List<String> strings = new ArrayList<>();
+        ZipEntry entry = zip.getEntry(SHARED_STRINGS);
+        if (entry == null) {
+            return strings;
+        }
+        try (InputStream in = zip.getInputStream(entry)) {
+            XMLStreamReader xml = factory.createXMLStreamReader(in);
+            StringBuilder current = null;
+            // Phonetic runs (<rPh>) repeat the text and must not be appended
+            boolean inText = false;
+            int phonetic = 0;
+            while (xml.hasNext()) {
+                int event = xml.next();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    String name = xml.getLocalName();
+                    if ("si".equals(name)) {
+                        current = new StringBuilder();
+                    } else if ("rPh".equals(name)) {
+                        phonetic++;
+                    } else if ("t".equals(name)) {
+                        inText = phonetic == 0;
+                    }
+                } else if (event == XMLStreamConstants.CHARACTERS || event == XMLStreamConstants.CDATA) {
+                    if (inText && current != null) {
+                        current.append(xml.getText());
+                    }
+                } else if (event == XMLStreamConstants.END_ELEMENT) {
+                    String name = xml.getLocalName();
+                    if ("si".equals(name) && current != null) {
+                        strings.add(current.toString());
+                        current = null;
+                    } else if ("rPh".equals(name)) {
+                        phonetic--;
+                    } else if ("t".equals(name)) {
+                        inText = false;
+                    }
+                }
+            }
+            xml.close();
+        } catch (XMLStreamException e) {
+            throw new IllegalStateException("Malformed shared strings table", e);
+        }
+        return strings;
+    }
+
+    // Sheet name and zip path for every sheet, in workbook order
+    private Deque<String[]> readSheetList() throws IOException {
+        Map<String, String> targets = new HashMap<>();
+        Deque<String[]> result = new ArrayDeque<>();
+        try {
+            ZipEntry rels = zip.getEntry(WORKBOOK_RELS);
+            if (rels != null) {
+                try (InputStream in = zip.getInputStream(rels)) {
+                    XMLStreamReader xml = factory.createXMLStreamReader(in);
+                    while (xml.hasNext()) {
+                        if (xml.next() == XMLStreamConstants.START_ELEMENT && "Relationship".equals(xml.getLocalName())) {
+                            targets.put(xml.getAttributeValue(null, "Id"), xml.getAttributeValue(null, "Target"));
+                        }
+                    }
+                    xml.close();
+                }
+            }
+            ZipEntry workbook = zip.getEntry(WORKBOOK);
+            if (workbook == null) {
+                throw new IOException("Not an xlsx workbook: missing " + WORKBOOK);
+            }
+            try (InputStream in = zip.getInputStream(workbook)) {
+                XMLStreamReader xml = factory.createXMLStreamReader(in);
+                int position = 1;
+                while (xml.hasNext()) {
+                    if (xml.next() == XMLStreamConstants.START_ELEMENT && "sheet".equals(xml.getLocalName())) {
+                        String relationId = null;
+                        for (int i = 0; i < xml.getAttributeCount(); i++) {
+                            if ("id".equals(xml.getAttributeLocalName(i))) {
+                                relationId = xml.getAttributeValue(i);
+                            }
+                        }
+                        String target = targets.get(relationId);
+                        String path = target == null ? "xl/worksheets/sheet" + position + ".xml"
+                                : target.startsWith("/") ? target.substring(1) : "xl/" + target;
+                        result.add(new String[]{xml.getAttributeValue(null, "name"), path});
+                        position++;
+                    }
+                }
+                xml.close();
+            }
+        } catch (XMLStreamException e) {
+            throw new IllegalStateException("Malformed workbook index", e);
+        }
+        return result;
+    }
+
+    private static List<String> toHeaders(Map<Integer, String> cells) {
+        int width = cells.keySet().stream().mapToInt(Integer::intValue).max().orElse(-1) + 1;
+        List<String> headers = new ArrayList<>(width);
+        for (int i = 0; i < width; i++) {
+            headers.add(cells.getOrDefault(i, "").trim());
+        }
+        return headers;
+    }
+
+    // "AB12" -> 27
+    static int columnIndex(String cellRef) {
+        int index = 0;
+        for (int i = 0; i < cellRef.length(); i++) {
+            char c = cellRef.charAt(i);
+            if (c < 'A' || c > 'Z') {
+                break;
+            }
+            index = index * 26 + (c - 'A' + 1);
+        }
+        return index - 1;
+    }
+}
@@ -0,0 +1,44 @@
+package com.janitri.listeners;
+
+import com.janitri.metrics.CommandMetrics;
+import com.janitri.trace.Trace;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.IInvokedMethod;
+import org.testng.IInvokedMethodListener;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+import org.testng.ITestListener;
+import org.testng.ITestResult;
+
+/**
+ * Reports WebDriver command latency percentiles for each test (into its trace, so they show up with a
+ * failure) and for the whole suite.
+ */
+public class CommandTimingReporter implements ITestListener, IInvokedMethodListener, ISuiteListener {
+    private static final Logger LOG = LoggerFactory.getLogger(CommandTimingReporter.class);
+    private static final int TEST_REPORT_LINES = 5;
+    private static final int SUITE_REPORT_LINES = 40;
+
+    @Override
+    public void onTestStart(ITestResult result) {
+        CommandMetrics.startTest();
+    }
+
+    // Must run before TraceListener flushes the trace, so it is registered first in testing.xml
+    @Override
+    public void afterInvocation(IInvokedMethod method, ITestResult testResult) {
+        if (method.isTestMethod()) {
+            Trace.event("--- Slowest WebDriver commands in {} ---", testResult.getMethod().getMethodName());
+            for (String line : CommandMetrics.testReport(TEST_REPORT_LINES)) {
+                Trace.event(line);
+            }
+        }
+    }
+
+    @Override
+    public void onFinish(ISuite suite) {
+        LOG.info("=== WebDriver command latency for suite {} ==={}{}", suite.getName(), System.lineSeparator(),
+                String.join(System.lineSeparator(), CommandMetrics.suiteReport(SUITE_REPORT_LINES)));
+    }
+}
@@ -0,0 +1,39 @@
+package com.janitri.listeners;
+
+import com.janitri.sharding.DurationHistory;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+import org.testng.ITestListener;
+import org.testng.ITestResult;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Records how long each test method took (summed over data-provider invocations) and merges the result
+ * into the duration history that {@link ShardSelector} plans from.
+ */
+public class DurationRecorder implements ITestListener, ISuiteListener {
+    private final Map<String, Long> durations = new ConcurrentHashMap<>();
+
+    @Override
+    public void onTestSuccess(ITestResult result) {
+        record(result);
+    }
+
+    @Override
+    public void onTestFailure(ITestResult result) {
+        record(result);
+    }
+
+    @Override
+    public void onFinish(ISuite suite) {
+        DurationHistory.fromSystemProperties().record(durations);
+        durations.clear();
+    }
+
+    private void record(ITestResult result) {
+        durations.merge(ShardSelector.keyOf(result.getMethod()),
+                Math.max(0, result.getEndMillis() - result.getStartMillis()), Long::sum);
+    }
+}
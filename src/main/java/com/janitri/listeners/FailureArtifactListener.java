@@ -0,0 +1,72 @@
+package com.janitri.listeners;
+
+import com.janitri.artifacts.ArtifactWriter;
+import com.janitri.artifacts.FailureSnapshot;
+import com.janitri.artifacts.ScreencastRecorder;
+import com.janitri.base.DriverRegistry;
+import org.openqa.selenium.WebDriver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+import org.testng.ITestListener;
+import org.testng.ITestResult;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Captures a {@link FailureSnapshot} of the failing test's browser and hands it to the background
+ * {@link ArtifactWriter}. TestNG calls this before {@code @AfterMethod}, so the session is still registered
+ * on the test thread; capturing costs a few browser round trips and BaseTest releases the session as usual
+ * straight after. Failed attempts that are retried are captured too, and so is the screencast when one is
+ * being recorded.
+ */
+public class FailureArtifactListener implements ITestListener, ISuiteListener {
+    private static final Logger LOG = LoggerFactory.getLogger(FailureArtifactListener.class);
+    private static final Duration DRAIN_TIMEOUT = Duration.ofSeconds(30);
+
+    @Override
+    public void onStart(ISuite suite) {
+        ArtifactWriter.getInstance().prune();
+    }
+
+    @Override
+    public void onTestFailure(ITestResult result) {
+        capture(result, "");
+    }
+
+    @Override
+    public void onTestSkipped(ITestResult result) {
+        if (result.wasRetried()) {
+            capture(result, "-attempt");
+        }
+    }
+
+    @Override
+    public void onFinish(ISuite suite) {
+        ArtifactWriter writer = ArtifactWriter.getInstance();
+        writer.drain(DRAIN_TIMEOUT);
+        writer.prune();
+    }
+
+    private void capture(ITestResult result, String suffix) {
+        if (!Boolean.parseBoolean(System.getProperty("test.artifacts", "true")) || !DriverRegistry.hasCurrent()) {
+            return;
+        }
+        String name = ShardSelector.keyOf(result.getMethod()).replace('#', '.') + suffix;
+        ArtifactWriter writer = ArtifactWriter.getInstance();
+        WebDriver driver = DriverRegistry.current().getDriver();
+        FailureSnapshot snapshot = FailureSnapshot.capture(driver, name, result.getStartMillis(),
+                result.getThrowable(), writer.getLimits());
+        // The last seconds before the failure, when -Dtest.screencast=true
+        ScreencastRecorder recorder = ScreencastRecorder.active(driver);
+        if (recorder != null) {
+            recorder.addTo(snapshot);
+        }
+        Path directory = writer.submit(snapshot);
+        if (directory != null) {
+            LOG.info("Failure artifacts for {} -> {}", name, directory);
+        }
+    }
+}
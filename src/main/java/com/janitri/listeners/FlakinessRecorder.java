@@ -0,0 +1,70 @@
+package com.janitri.listeners;
+
+import com.janitri.retry.FlakinessStats;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+import org.testng.ITestListener;
+import org.testng.ITestResult;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Counts, per test method, runs that passed first time, passed only after a retry, or failed, and adds
+ * them to the persistent flakiness stats at the end of the suite. Chronic offenders are listed so they can
+ * be moved to {@code quarantine.txt}.
+ */
+public class FlakinessRecorder implements ITestListener, ISuiteListener {
+    private static final Logger LOG = LoggerFactory.getLogger(FlakinessRecorder.class);
+
+    // Retries of one invocation run on the same thread, so a thread-local flag links them
+    private static final ThreadLocal<Boolean> RETRIED = ThreadLocal.withInitial(() -> false);
+
+    private final Map<String, FlakinessStats.Entry> observed = new ConcurrentHashMap<>();
+
+    @Override
+    public void onTestSkipped(ITestResult result) {
+        if (result.wasRetried()) {
+            RETRIED.set(true);
+        }
+    }
+
+    @Override
+    public void onTestSuccess(ITestResult result) {
+        finish(result, true);
+    }
+
+    @Override
+    public void onTestFailure(ITestResult result) {
+        finish(result, false);
+    }
+
+    @Override
+    public void onFinish(ISuite suite) {
+        observed.forEach((key, entry) -> {
+            if (entry.getFlaky() > 0) {
+                LOG.warn("Flaky: {} passed only after a retry in {} of {} runs", key, entry.getFlaky(),
+                        entry.getRuns());
+            }
+        });
+        FlakinessStats stats = FlakinessStats.fromSystemProperties();
+        stats.record(observed);
+        observed.clear();
+
+        List<String> offenders = stats.chronicOffenders();
+        if (!offenders.isEmpty()) {
+            LOG.warn("Chronically flaky tests (candidates for quarantine.txt): {}", offenders);
+        }
+    }
+
+    private void finish(ITestResult result, boolean passed) {
+        boolean retried = RETRIED.get();
+        RETRIED.remove();
+        FlakinessStats.Entry entry = observed.computeIfAbsent(ShardSelector.keyOf(result.getMethod()),
+                key -> new FlakinessStats.Entry());
+        entry.add(retried, passed);
+    }
+}
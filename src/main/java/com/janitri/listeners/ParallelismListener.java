@@ -0,0 +1,29 @@
+package com.janitri.listeners;
+
+import com.janitri.base.TestConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.IAlterSuiteListener;
+import org.testng.xml.XmlSuite;
+
+import java.util.List;
+
+/**
+ * Sizes method-level parallelism from -Dtest.threads (default: one thread per core), so the same
+ * testing.xml scales from a laptop to a 16-core runner. Parallel data providers get the same number of threads.
+ */
+public class ParallelismListener implements IAlterSuiteListener {
+    private static final Logger LOG = LoggerFactory.getLogger(ParallelismListener.class);
+
+    @Override
+    public void alter(List<XmlSuite> suites) {
+        int threads = TestConfig.threadCount();
+        for (XmlSuite suite : suites) {
+            suite.setParallel(threads > 1 ? XmlSuite.ParallelMode.METHODS : XmlSuite.ParallelMode.NONE);
+            suite.setThreadCount(threads);
+            // Parallel data providers share a separate pool; keep it in step with the browser pool
+            suite.setDataProviderThreadCount(threads);
+        }
+        LOG.info("Running test methods on {} thread(s)", threads);
+    }
+}
@@ -0,0 +1,35 @@
+package com.janitri.listeners;
+
+import com.janitri.perf.PerformanceBudgets;
+import com.janitri.trace.Trace;
+import org.testng.IInvokedMethod;
+import org.testng.IInvokedMethodListener;
+import org.testng.ITestResult;
+
+import java.util.List;
+
+/**
+ * Fails a test whose pages exceeded their {@link com.janitri.perf.PerformanceBudget} in {@code fail} mode.
+ * Budgets are mostly checked in {@code @BeforeMethod}, and a failing configuration method would only skip
+ * the test, so the result of the test method is turned into a failure once it has run.
+ */
+public class PerformanceBudgetListener implements IInvokedMethodListener {
+
+    @Override
+    public void afterInvocation(IInvokedMethod method, ITestResult testResult) {
+        if (!method.isTestMethod()) {
+            return;
+        }
+        List<String> exceeded = PerformanceBudgets.takeExceeded();
+        if (exceeded.isEmpty()) {
+            return;
+        }
+        if (testResult.getStatus() != ITestResult.SUCCESS) {
+            // The test's own failure comes first; the budget stays in its trace
+            return;
+        }
+        testResult.setStatus(ITestResult.FAILURE);
+        testResult.setThrowable(new AssertionError(String.join(System.lineSeparator(), exceeded)));
+        Trace.event("Marked {} failed for exceeding its performance budget", testResult.getName());
+    }
+}
@@ -0,0 +1,101 @@
+package com.janitri.listeners;
+
+import com.janitri.base.BaseTest;
+import com.janitri.metrics.PhaseHistory;
+import com.janitri.metrics.RegressionDetector;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.IInvokedMethod;
+import org.testng.IInvokedMethodListener;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+import org.testng.ITestNGMethod;
+import org.testng.ITestResult;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Times each test's phases: {@code setUp} (BaseTest's session lease), {@code page} (the test class's own
+ * {@code @BeforeMethod}, where page objects are built), {@code body}, {@code tearDown} (returning the session)
+ * and {@code cleanup} (the test class's own {@code @AfterMethod}, if any). At the end of
+ * the suite every phase is compared with its history by {@link RegressionDetector} and then appended to
+ * it. Only passing invocations count; a failure's timings say nothing about speed.
+ */
+public class PhaseHistoryRecorder implements IInvokedMethodListener, ISuiteListener {
+    private static final Logger LOG = LoggerFactory.getLogger(PhaseHistoryRecorder.class);
+
+    // A test method runs between its @BeforeMethod and @AfterMethod hooks on one thread
+    private static final ThreadLocal<Map<String, Long>> PENDING = ThreadLocal.withInitial(HashMap::new);
+    private static final ThreadLocal<String> LAST_TEST = new ThreadLocal<>();
+
+    private final Map<String, List<Long>> samples = new ConcurrentHashMap<>();
+
+    @Override
+    public void afterInvocation(IInvokedMethod method, ITestResult result) {
+        ITestNGMethod testMethod = method.getTestMethod();
+        long millis = Math.max(0, result.getEndMillis() - result.getStartMillis());
+
+        boolean base = testMethod.getConstructorOrMethod().getDeclaringClass() == BaseTest.class;
+        if (testMethod.isBeforeMethodConfiguration()) {
+            // A new test is being prepared; hooks after it no longer belong to the previous one
+            LAST_TEST.remove();
+            if (!result.isSuccess()) {
+                // The test is skipped and never invoked, so its setup time must not reach the next one
+                PENDING.remove();
+                return;
+            }
+            PENDING.get().merge(base ? "setUp" : "page", millis, Long::sum);
+        } else if (testMethod.isAfterMethodConfiguration()) {
+            String test = LAST_TEST.get();
+            if (test != null && result.isSuccess()) {
+                add(test + (base ? ".tearDown" : ".cleanup"), millis);
+            }
+        } else if (method.isTestMethod()) {
+            Map<String, Long> before = new HashMap<>(PENDING.get());
+            PENDING.remove();
+            LAST_TEST.remove();
+            if (result.getStatus() != ITestResult.SUCCESS) {
+                return;
+            }
+            String key = ShardSelector.keyOf(testMethod);
+            LAST_TEST.set(key);
+            before.forEach((phase, phaseMillis) -> add(key + "." + phase, phaseMillis));
+            add(key + ".body", millis);
+        }
+    }
+
+    @Override
+    public void onFinish(ISuite suite) {
+        // Data-provider rows of one method are folded into their median
+        Map<String, Long> current = new TreeMap<>();
+        samples.forEach((key, values) -> current.put(key, Math.round(RegressionDetector.median(values))));
+        samples.clear();
+        if (current.isEmpty()) {
+            return;
+        }
+
+        PhaseHistory history = PhaseHistory.fromSystemProperties();
+        List<RegressionDetector.Regression> regressions =
+                RegressionDetector.fromSystemProperties().detect(current, history.load());
+        history.append(current);
+
+        if (regressions.isEmpty()) {
+            LOG.info("No phase regressions among {} timed phases", current.size());
+            return;
+        }
+        List<String> lines = new ArrayList<>();
+        regressions.forEach(regression -> lines.add(regression.toString()));
+        LOG.warn("=== {} phase(s) slower than their history ==={}{}", regressions.size(), System.lineSeparator(),
+                String.join(System.lineSeparator(), lines));
+    }
+
+    private void add(String key, long millis) {
+        samples.computeIfAbsent(key, k -> Collections.synchronizedList(new ArrayList<>())).add(millis);
+    }
+}
@@ -0,0 +1,39 @@
+package com.janitri.listeners;
+
+import com.janitri.base.BaseTest;
+import com.janitri.retry.Quarantine;
+import com.janitri.retry.RetryAnalyzer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.IAnnotationTransformer;
+import org.testng.annotations.ITestAnnotation;
+import org.testng.internal.annotations.DisabledRetryAnalyzer;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+
+/**
+ * Gives every browser test without its own retry analyzer the session-reusing {@link RetryAnalyzer}, and
+ * disables quarantined tests. Browserless unit tests are never retried; a failure there is a real one.
+ */
+public class RetryTransformer implements IAnnotationTransformer {
+    private static final Logger LOG = LoggerFactory.getLogger(RetryTransformer.class);
+
+    @Override
+    public void transform(ITestAnnotation annotation, Class testClass, Constructor testConstructor, Method testMethod) {
+        if (testMethod == null) {
+            return;
+        }
+        Class<?> retry = annotation.getRetryAnalyzerClass();
+        boolean browserTest = BaseTest.class.isAssignableFrom(testMethod.getDeclaringClass());
+        if (browserTest && (retry == null || retry == DisabledRetryAnalyzer.class)) {
+            annotation.setRetryAnalyzer(RetryAnalyzer.class);
+        }
+
+        String key = testMethod.getDeclaringClass().getName() + "#" + testMethod.getName();
+        if (Quarantine.contains(key)) {
+            LOG.info("Skipping quarantined test {}", key);
+            annotation.setEnabled(false);
+        }
+    }
+}
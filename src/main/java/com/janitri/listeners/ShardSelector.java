@@ -0,0 +1,65 @@
+package com.janitri.listeners;
+
+import com.janitri.base.TestConfig;
+import com.janitri.sharding.DurationHistory;
+import com.janitri.sharding.ShardPlanner;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.IMethodInstance;
+import org.testng.IMethodInterceptor;
+import org.testng.ITestContext;
+import org.testng.ITestNGMethod;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Keeps only the test methods that belong to this shard, chosen from recorded durations so every shard
+ * takes about as long as the others. Shards are {@code -Dtest.shard.index}/{@code -Dtest.shard.count}
+ * (machines or CI jobs). All shards must see the same {@code .test-history}, e.g. restored from a CI cache,
+ * to agree on the plan.
+ */
+public class ShardSelector implements IMethodInterceptor {
+    private static final Logger LOG = LoggerFactory.getLogger(ShardSelector.class);
+    // Estimate for every method when nothing has been recorded yet; the split is then by count
+    private static final long DEFAULT_ESTIMATE_MILLIS = 5_000;
+
+    @Override
+    public List<IMethodInstance> intercept(List<IMethodInstance> methods, ITestContext context) {
+        int shards = TestConfig.shardCount();
+        if (shards <= 1) {
+            return methods;
+        }
+        int shard = TestConfig.shardIndex();
+
+        Set<String> keys = new LinkedHashSet<>();
+        for (IMethodInstance method : methods) {
+            keys.add(keyOf(method.getMethod()));
+        }
+        Map<String, Long> estimates = ShardPlanner.estimates(keys,
+                DurationHistory.fromSystemProperties().load(), DEFAULT_ESTIMATE_MILLIS);
+        Map<String, Integer> plan = ShardPlanner.plan(keys, estimates, shards);
+
+        List<IMethodInstance> selected = new ArrayList<>();
+        long selectedMillis = 0;
+        long totalMillis = 0;
+        for (IMethodInstance method : methods) {
+            String key = keyOf(method.getMethod());
+            totalMillis += estimates.get(key);
+            if (plan.get(key) == shard) {
+                selected.add(method);
+                selectedMillis += estimates.get(key);
+            }
+        }
+        LOG.info("Shard {}/{} runs {} of {} methods in {} (estimated {}s of {}s)", shard + 1, shards,
+                selected.size(), methods.size(), context.getName(), selectedMillis / 1000, totalMillis / 1000);
+        return selected;
+    }
+
+    public static String keyOf(ITestNGMethod method) {
+        return method.getRealClass().getName() + "#" + method.getMethodName();
+    }
+}
@@ -0,0 +1,45 @@
+package com.janitri.listeners;
+
+import com.janitri.trace.Trace;
+import org.testng.IInvokedMethod;
+import org.testng.IInvokedMethodListener;
+import org.testng.ITestResult;
+
+import java.util.Arrays;
+
+/**
+ * Starts the per-thread {@link Trace} on the threads TestNG runs methods on, and flushes it after each test
+ * method and each configuration method. The trace is printed only when the method failed (including an
+ * attempt that was retried) or verbose tracing is on, and is then cleared for the next test.
+ */
+public class TraceListener implements IInvokedMethodListener {
+
+    @Override
+    public void beforeInvocation(IInvokedMethod method, ITestResult testResult) {
+        Trace.begin();
+    }
+
+    @Override
+    public void afterInvocation(IInvokedMethod method, ITestResult testResult) {
+        // Setup events stay buffered and are reported together with the test they prepared
+        if (method.getTestMethod().isBeforeMethodConfiguration() && testResult.isSuccess()) {
+            return;
+        }
+        // A retried attempt ends up skipped; whether that is visible here yet depends on the TestNG version,
+        // and either way its trace explains why it was retried
+        boolean failed = testResult.getStatus() == ITestResult.FAILURE
+                || (testResult.getStatus() == ITestResult.SKIP && testResult.wasRetried());
+        if (failed || Trace.isVerbose()) {
+            String title = method.getTestMethod().getQualifiedName()
+                    + (method.isTestMethod() ? "" : " [configuration]")
+                    + (testResult.getParameters().length > 0 ? " " + Arrays.toString(testResult.getParameters()) : "")
+                    + (failed ? " FAILED" : "");
+            if (failed && testResult.getThrowable() != null) {
+                Trace.warn("Failure: {}", String.valueOf(testResult.getThrowable()));
+            }
+            Trace.flush(title, failed);
+        } else {
+            Trace.clear();
+        }
+    }
+}
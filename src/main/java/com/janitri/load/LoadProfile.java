@@ -0,0 +1,113 @@
+package com.janitri.load;
+
+import com.janitri.server.LoginScript;
+
+import java.time.Duration;
+
+/**
+ * Shape of a load run, read from {@code -Dload.*} switches. A positive iteration count wins over the
+ * duration.
+ */
+public class LoadProfile {
+    public enum Expectation {
+        ANY,
+        ACCEPTED,
+        REJECTED
+    }
+
+    private final int users;
+    private final Duration duration;
+    private final int iterations;
+    private final Duration rampUp;
+    private final Duration thinkTime;
+    private final Duration outcomeTimeout;
+    private final String userId;
+    private final String password;
+    private final Expectation expectation;
+    private final double maxErrorRate;
+    private final long maxP95Millis;
+
+    public LoadProfile(int users, Duration duration, int iterations, Duration rampUp, Duration thinkTime,
+                       Duration outcomeTimeout, String userId, String password, Expectation expectation,
+                       double maxErrorRate, long maxP95Millis) {
+        this.users = Math.max(1, users);
+        this.duration = duration;
+        this.iterations = Math.max(0, iterations);
+        this.rampUp = rampUp;
+        this.thinkTime = thinkTime;
+        this.outcomeTimeout = outcomeTimeout;
+        this.userId = userId;
+        this.password = password;
+        this.expectation = expectation;
+        this.maxErrorRate = maxErrorRate;
+        this.maxP95Millis = maxP95Millis;
+    }
+
+    public static LoadProfile fromSystemProperties() {
+        return new LoadProfile(
+                Integer.getInteger("load.users", 2),
+                Duration.ofSeconds(Long.getLong("load.duration.seconds", 60L)),
+                Integer.getInteger("load.iterations", 0),
+                Duration.ofSeconds(Long.getLong("load.rampup.seconds", 0L)),
+                Duration.ofMillis(Long.getLong("load.think.ms", 0L)),
+                Duration.ofSeconds(Long.getLong("load.outcome.timeout.seconds", 10L)),
+                System.getProperty("load.user", LoginScript.DEFAULT_USER),
+                System.getProperty("load.password", LoginScript.DEFAULT_PASSWORD),
+                Expectation.valueOf(System.getProperty("load.expect", "any").trim().toUpperCase()),
+                Double.parseDouble(System.getProperty("load.max.error.rate", "1.0")),
+                Long.getLong("load.max.p95.ms", 0L));
+    }
+
+    public int getUsers() {
+        return users;
+    }
+
+    public Duration getDuration() {
+        return duration;
+    }
+
+    // Per virtual user; 0 means run for the duration instead
+    public int getIterations() {
+        return iterations;
+    }
+
+    public Duration getRampUp() {
+        return rampUp;
+    }
+
+    public Duration getThinkTime() {
+        return thinkTime;
+    }
+
+    public Duration getOutcomeTimeout() {
+        return outcomeTimeout;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public String getPassword() {
+        return password;
+    }
+
+    public Expectation getExpectation() {
+        return expectation;
+    }
+
+    public double getMaxErrorRate() {
+        return maxErrorRate;
+    }
+
+    // 0 disables the latency gate
+    public long getMaxP95Millis() {
+        return maxP95Millis;
+    }
+
+    @Override
+    public String toString() {
+        String length = iterations > 0 ? iterations + " iterations/user" : duration.getSeconds() + "s";
+        return users + " users, " + length + ", ramp-up " + rampUp.getSeconds() + "s, think "
+                + thinkTime.toMillis() + "ms, expecting " + expectation;
+    }
+}
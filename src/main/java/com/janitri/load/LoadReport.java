@@ -0,0 +1,99 @@
+package com.janitri.load;
+
+import com.janitri.metrics.LatencyHistogram;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Thread-safe tally of a load run: login round-trip and whole-iteration latencies, plus a count per
+ * outcome.
+ */
+public class LoadReport {
+    public enum Outcome {
+        // The login left the login page
+        ACCEPTED,
+        // The page rendered an error for the credentials
+        REJECTED,
+        // Accepted or rejected, but not what the profile expected
+        UNEXPECTED,
+        // No outcome within the profile's outcome timeout
+        TIMEOUT,
+        // The browser or page threw
+        ERROR
+    }
+
+    private final LatencyHistogram roundTrip = new LatencyHistogram();
+    private final LatencyHistogram iteration = new LatencyHistogram();
+    private final Map<Outcome, AtomicLong> outcomes = new EnumMap<>(Outcome.class);
+    private volatile long elapsedNanos;
+
+    public LoadReport() {
+        for (Outcome outcome : Outcome.values()) {
+            outcomes.put(outcome, new AtomicLong());
+        }
+    }
+
+    void record(Outcome outcome, long roundTripNanos, long iterationNanos) {
+        outcomes.get(outcome).incrementAndGet();
+        if (roundTripNanos > 0) {
+            roundTrip.recordNanos(roundTripNanos);
+        }
+        iteration.recordNanos(iterationNanos);
+    }
+
+    void finish(long elapsedNanos) {
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public long getTotal() {
+        return outcomes.values().stream().mapToLong(AtomicLong::get).sum();
+    }
+
+    public long getCount(Outcome outcome) {
+        return outcomes.get(outcome).get();
+    }
+
+    // Unexpected outcomes, timeouts and exceptions over all attempts
+    public double getErrorRate() {
+        long total = getTotal();
+        long errors = getCount(Outcome.UNEXPECTED) + getCount(Outcome.TIMEOUT) + getCount(Outcome.ERROR);
+        return total == 0 ? 0 : (double) errors / total;
+    }
+
+    public double getThroughputPerSecond() {
+        return elapsedNanos == 0 ? 0 : getTotal() / (elapsedNanos / 1_000_000_000.0);
+    }
+
+    public LatencyHistogram getRoundTrip() {
+        return roundTrip;
+    }
+
+    public LatencyHistogram getIteration() {
+        return iteration;
+    }
+
+    public List<String> lines() {
+        List<String> lines = new ArrayList<>();
+        lines.add(String.format("logins=%d elapsed=%.1fs throughput=%.2f/s error rate=%.2f%%",
+                getTotal(), elapsedNanos / 1_000_000_000.0, getThroughputPerSecond(), getErrorRate() * 100));
+        StringBuilder counts = new StringBuilder("outcomes:");
+        for (Outcome outcome : Outcome.values()) {
+            counts.append(' ').append(outcome.name().toLowerCase()).append('=').append(getCount(outcome));
+        }
+        lines.add(counts.toString());
+        lines.add(format("login round trip", roundTrip));
+        lines.add(format("whole iteration", iteration));
+        return lines;
+    }
+
+    private static String format(String name, LatencyHistogram histogram) {
+        return String.format("%-18s n=%-6d mean=%7.1fms p50=%7.1fms p90=%7.1fms p95=%7.1fms p99=%7.1fms max=%7.1fms",
+                name, histogram.getCount(), histogram.getMeanMillis(), histogram.percentileMillis(0.50),
+                histogram.percentileMillis(0.90), histogram.percentileMillis(0.95),
+                histogram.percentileMillis(0.99), histogram.getMaxMillis());
+    }
+}
@@ -0,0 +1,202 @@
+package com.janitri.load;
+
+import com.janitri.base.DriverPool;
+import com.janitri.base.TestConfig;
+import com.janitri.metrics.CommandMetrics;
+import com.janitri.pages.LoginMessages;
+import com.janitri.pages.LoginPage;
+import com.janitri.server.LocalLoginServer;
+import com.janitri.trace.Trace;
+import org.openqa.selenium.WebDriver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Drives the LoginPage flow (user ID, password, submit, outcome) from N concurrent virtual users, each on
+ * its own browser. Every iteration starts from a reset session, as a fresh visitor would.
+ *
+ * <p>Run with {@code mvn -Pload compile exec:java} (add {@code -Plocal} to target the in-process stand-in
+ * server).</p>
+ */
+public class LoginLoadGenerator {
+    private static final Logger LOG = LoggerFactory.getLogger(LoginLoadGenerator.class);
+
+    private final LoadProfile profile;
+    private final String baseUrl;
+    private final LoadReport report = new LoadReport();
+
+    public LoginLoadGenerator(LoadProfile profile, String baseUrl) {
+        this.profile = profile;
+        this.baseUrl = baseUrl;
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadProfile profile = LoadProfile.fromSystemProperties();
+
+        LocalLoginServer server = null;
+        if (TestConfig.useLocalServer()) {
+            server = LocalLoginServer.start(TestConfig.localServerPort(), TestConfig.localServerRequiresNotifications());
+            server.script().latency(Duration.ofMillis(TestConfig.localLatencyMillis()));
+            TestConfig.overrideBaseUrl(server.getBaseUrl());
+        }
+
+        LoadReport report;
+        try {
+            report = new LoginLoadGenerator(profile, TestConfig.baseUrl()).run();
+        } finally {
+            if (server != null) {
+                server.stop();
+            }
+        }
+
+        LOG.info("=== Slowest WebDriver commands ==={}{}", System.lineSeparator(),
+                String.join(System.lineSeparator(), CommandMetrics.suiteReport(10)));
+
+        List<String> violations = new ArrayList<>();
+        if (report.getErrorRate() > profile.getMaxErrorRate()) {
+            violations.add(String.format("error rate %.2f%% above %.2f%%",
+                    report.getErrorRate() * 100, profile.getMaxErrorRate() * 100));
+        }
+        double p95 = report.getRoundTrip().percentileMillis(0.95);
+        if (profile.getMaxP95Millis() > 0 && p95 > profile.getMaxP95Millis()) {
+            violations.add(String.format("login p95 %.1fms above %dms", p95, profile.getMaxP95Millis()));
+        }
+        if (!violations.isEmpty()) {
+            // Thrown rather than System.exit so exec:java reports a failed build
+            throw new IllegalStateException("Load run failed: " + String.join(", ", violations));
+        }
+    }
+
+    public LoadReport run() throws InterruptedException {
+        LOG.info("=== Login load: {} against {} ===", profile, baseUrl);
+
+        DriverPool pool = DriverPool.create(profile.getUsers());
+        AtomicInteger threadIds = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(profile.getUsers(), runnable -> {
+            Thread thread = new Thread(runnable, "virtual-user-" + threadIds.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        long start = System.nanoTime();
+        long deadline = start + profile.getDuration().toNanos();
+
+        try {
+            List<Future<?>> users = new ArrayList<>();
+            for (int i = 0; i < profile.getUsers(); i++) {
+                int user = i;
+                users.add(executor.submit(() -> runUser(pool, user, start, deadline)));
+            }
+            for (Future<?> user : users) {
+                try {
+                    user.get();
+                } catch (Exception e) {
+                    LOG.warn("Virtual user stopped: {}", e.getMessage());
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+            executor.awaitTermination(30, TimeUnit.SECONDS);
+            pool.shutdown();
+        }
+
+        report.finish(System.nanoTime() - start);
+        LOG.info("=== Login load results ==={}{}", System.lineSeparator(),
+                String.join(System.lineSeparator(), report.lines()));
+        return report;
+    }
+
+    private void runUser(DriverPool pool, int user, long start, long deadline) {
+        // Each iteration's trace is flushed or cleared at its end
+        Trace.begin();
+        // Spread user start times evenly across the ramp-up
+        long offset = profile.getRampUp().toNanos() * user / profile.getUsers();
+        sleepNanos(start + offset - System.nanoTime());
+
+        for (int i = 0; profile.getIterations() > 0 ? i < profile.getIterations() : System.nanoTime() < deadline; i++) {
+            runIteration(pool);
+            sleepNanos(profile.getThinkTime().toNanos());
+        }
+    }
+
+    private void runIteration(DriverPool pool) {
+        long iterationStart = System.nanoTime();
+        long roundTrip = 0;
+        LoadReport.Outcome outcome;
+        WebDriver driver = null;
+        boolean healthy = true;
+
+        try {
+            driver = pool.lease(baseUrl);
+            LoginPage loginPage = new LoginPage(driver);
+            String loginUrl = driver.getCurrentUrl();
+            loginPage.enterUserId(profile.getUserId());
+            loginPage.enterPassword(profile.getPassword());
+
+            long clicked = System.nanoTime();
+            loginPage.clickLoginButton();
+            boolean answered = loginPage.waitForLoginOutcome(loginUrl, profile.getOutcomeTimeout());
+            roundTrip = System.nanoTime() - clicked;
+
+            if (!answered) {
+                outcome = LoadReport.Outcome.TIMEOUT;
+            } else if (!loginUrl.equals(driver.getCurrentUrl())) {
+                outcome = expected(LoadReport.Outcome.ACCEPTED);
+            } else if (loginPage.getErrorMessage().contains(LoginMessages.NOTIFICATION_REQUIRED)) {
+                // The permission dialog blocked the form; the endpoint was never exercised
+                outcome = LoadReport.Outcome.ERROR;
+            } else {
+                outcome = expected(LoadReport.Outcome.REJECTED);
+            }
+        } catch (Exception e) {
+            Trace.warn("Login iteration failed: {}", e.getMessage());
+            outcome = LoadReport.Outcome.ERROR;
+            healthy = false;
+        } finally {
+            if (driver != null) {
+                if (healthy) {
+                    pool.release(driver, baseUrl);
+                } else {
+                    pool.evict(driver);
+                }
+            }
+        }
+
+        report.record(outcome, roundTrip, System.nanoTime() - iterationStart);
+
+        // Page-object traces are only worth printing for iterations that went wrong
+        boolean failed = outcome != LoadReport.Outcome.ACCEPTED && outcome != LoadReport.Outcome.REJECTED;
+        if (failed || Trace.isVerbose()) {
+            Trace.flush("login iteration " + outcome, failed);
+        } else {
+            Trace.clear();
+        }
+    }
+
+    private LoadReport.Outcome expected(LoadReport.Outcome actual) {
+        LoadProfile.Expectation expectation = profile.getExpectation();
+        if (expectation == LoadProfile.Expectation.ANY || expectation.name().equals(actual.name())) {
+            return actual;
+        }
+        return LoadReport.Outcome.UNEXPECTED;
+    }
+
+    private static void sleepNanos(long nanos) {
+        if (nanos <= 0) {
+            return;
+        }
+        try {
+            TimeUnit.NANOSECONDS.sleep(nanos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
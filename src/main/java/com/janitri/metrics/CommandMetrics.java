@@ -0,0 +1,54 @@
+package com.janitri.metrics;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * WebDriver command latencies keyed by command and locator, kept both for the whole suite and for the
+ * test currently running on each thread.
+ */
+public class CommandMetrics {
+    private static final Map<String, LatencyHistogram> SUITE = new ConcurrentHashMap<>();
+    private static final ThreadLocal<Map<String, LatencyHistogram>> CURRENT_TEST = ThreadLocal.withInitial(HashMap::new);
+
+    private CommandMetrics() {
+    }
+
+    public static void record(String key, long nanos) {
+        SUITE.computeIfAbsent(key, k -> new LatencyHistogram()).recordNanos(nanos);
+        CURRENT_TEST.get().computeIfAbsent(key, k -> new LatencyHistogram()).recordNanos(nanos);
+    }
+
+    public static void startTest() {
+        CURRENT_TEST.get().clear();
+    }
+
+    public static List<String> testReport(int limit) {
+        return format(CURRENT_TEST.get(), limit);
+    }
+
+    public static List<String> suiteReport(int limit) {
+        return format(SUITE, limit);
+    }
+
+    // Most expensive commands first, so the lines worth reading are at the top
+    static List<String> format(Map<String, LatencyHistogram> histograms, int limit) {
+        List<Map.Entry<String, LatencyHistogram>> entries = new ArrayList<>(histograms.entrySet());
+        entries.sort(Comparator.comparingDouble(
+                (Map.Entry<String, LatencyHistogram> entry) -> entry.getValue().getTotalMillis()).reversed());
+
+        List<String> lines = new ArrayList<>();
+        for (Map.Entry<String, LatencyHistogram> entry : entries.subList(0, Math.min(limit, entries.size()))) {
+            LatencyHistogram histogram = entry.getValue();
+            lines.add(String.format("%-64s n=%-5d total=%8.1fms p50=%7.1fms p95=%7.1fms p99=%7.1fms max=%7.1fms",
+                    entry.getKey(), histogram.getCount(), histogram.getTotalMillis(),
+                    histogram.percentileMillis(0.50), histogram.percentileMillis(0.95),
+                    histogram.percentileMillis(0.99), histogram.getMaxMillis()));
+        }
+        return lines;
+    }
+}
@@ -0,0 +1,66 @@
+package com.janitri.metrics;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.events.WebDriverListener;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Set;
+
+/**
+ * Times every call that goes through the decorated driver and feeds {@link CommandMetrics}.
+ */
+public class CommandTimingListener implements WebDriverListener {
+    // Accessors that only hand out another decorated object and never reach chromedriver
+    private static final Set<String> LOCAL_CALLS = Set.of("manage", "navigate", "switchTo", "timeouts", "window",
+            "logs", "getWrappedDriver", "getWrappedElement", "toString", "hashCode", "equals");
+
+    private final ThreadLocal<Deque<Long>> starts = ThreadLocal.withInitial(ArrayDeque::new);
+
+    @Override
+    public void beforeAnyCall(Object target, Method method, Object[] args) {
+        starts.get().push(System.nanoTime());
+    }
+
+    @Override
+    public void afterAnyCall(Object target, Method method, Object[] args, Object result) {
+        finish(target, method, args);
+    }
+
+    @Override
+    public void onError(Object target, Method method, Object[] args, InvocationTargetException e) {
+        finish(target, method, args);
+    }
+
+    private void finish(Object target, Method method, Object[] args) {
+        Long start = starts.get().poll();
+        if (start == null || LOCAL_CALLS.contains(method.getName())) {
+            return;
+        }
+        CommandMetrics.record(keyOf(target, method, args), System.nanoTime() - start);
+    }
+
+    static String keyOf(Object target, Method method, Object[] args) {
+        String command = method.getDeclaringClass().getSimpleName() + "." + method.getName();
+        if (args != null && args.length > 0 && args[0] instanceof By) {
+            return command + " [" + args[0] + "]";
+        }
+        if (target instanceof WebElement) {
+            return command + " [" + locatorOf(target.toString()) + "]";
+        }
+        return command;
+    }
+
+    // RemoteWebElement.toString() ends with "-> <strategy>: <value>]" describing how it was found
+    static String locatorOf(String element) {
+        int arrow = element.lastIndexOf(" -> ");
+        if (arrow < 0) {
+            return "element";
+        }
+        String locator = element.substring(arrow + 4);
+        return locator.endsWith("]") ? locator.substring(0, locator.length() - 1) : locator;
+    }
+}
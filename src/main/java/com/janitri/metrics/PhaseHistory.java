@@ -0,0 +1,85 @@
+package com.janitri.metrics;
+
+import com.janitri.base.TestConfig;
+import com.janitri.utils.LockedPropertiesFile;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * The last few runs' phase durations per test, in {@code .test-history/phases.properties}: one line per
+ * {@code Class#method.phase} holding a comma separated rolling window of milliseconds, oldest first.
+ */
+public class PhaseHistory {
+    private static final Logger LOG = LoggerFactory.getLogger(PhaseHistory.class);
+
+    private final LockedPropertiesFile file;
+    private final int window;
+
+    public PhaseHistory(Path directory, int window) {
+        this.file = new LockedPropertiesFile(directory.resolve("phases.properties"),
+                "Per-test phase durations in milliseconds over the last runs, oldest first");
+        this.window = Math.max(1, window);
+    }
+
+    public static PhaseHistory fromSystemProperties() {
+        return new PhaseHistory(TestConfig.historyDir(), Integer.getInteger("test.phase.history.size", 20));
+    }
+
+    public Map<String, List<Long>> load() {
+        try {
+            return toSamples(file.read());
+        } catch (IOException e) {
+            LOG.warn("Could not read phase history {}: {}", file.getPath(), e.getMessage());
+            return new HashMap<>();
+        }
+    }
+
+    public void append(Map<String, Long> observedMillis) {
+        if (observedMillis.isEmpty()) {
+            return;
+        }
+        try {
+            file.update(properties -> {
+                Map<String, List<Long>> samples = toSamples(properties);
+                observedMillis.forEach((key, millis) -> {
+                    List<Long> values = samples.computeIfAbsent(key, k -> new ArrayList<>());
+                    values.add(millis);
+                    List<Long> kept = values.subList(Math.max(0, values.size() - window), values.size());
+                    StringBuilder line = new StringBuilder();
+                    for (Long value : kept) {
+                        line.append(line.length() == 0 ? "" : ",").append(value);
+                    }
+                    properties.setProperty(key, line.toString());
+                });
+            });
+        } catch (IOException e) {
+            LOG.warn("Could not update phase history {}: {}", file.getPath(), e.getMessage());
+        }
+    }
+
+    private static Map<String, List<Long>> toSamples(Properties properties) {
+        Map<String, List<Long>> samples = new HashMap<>();
+        for (String key : properties.stringPropertyNames()) {
+            List<Long> values = new ArrayList<>();
+            for (String value : properties.getProperty(key).split(",")) {
+                try {
+                    values.add(Long.parseLong(value.trim()));
+                } catch (NumberFormatException e) {
+                    // Skip hand-edited garbage rather than failing the run
+                }
+            }
+            if (!values.isEmpty()) {
+                samples.put(key, values);
+            }
+        }
+        return samples;
+    }
+}
@@ -0,0 +1,123 @@
+package com.janitri.metrics;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Flags durations that are significantly slower than their history, using the median and the median
+ * absolute deviation (MAD) so a few outliers in the baseline do not move it. Before comparing, every value
+ * is divided by the run's typical slowdown (the median ratio of current value to baseline median over all
+ * tests), so a uniformly slow CI agent does not raise alarms; only tests that slowed down more than the
+ * rest of the run do.
+ */
+public class RegressionDetector {
+    // 1.4826 * MAD estimates the standard deviation of normally distributed samples
+    private static final double MAD_SCALE = 1.4826;
+
+    private final int minSamples;
+    private final double threshold;
+    private final double minRelativeIncrease;
+    private final long minAbsoluteIncreaseMillis;
+
+    public RegressionDetector(int minSamples, double threshold, double minRelativeIncrease,
+                              long minAbsoluteIncreaseMillis) {
+        this.minSamples = minSamples;
+        this.threshold = threshold;
+        this.minRelativeIncrease = minRelativeIncrease;
+        this.minAbsoluteIncreaseMillis = minAbsoluteIncreaseMillis;
+    }
+
+    public static RegressionDetector fromSystemProperties() {
+        return new RegressionDetector(
+                Integer.getInteger("test.regression.min.samples", 5),
+                Double.parseDouble(System.getProperty("test.regression.threshold", "3.5")),
+                Double.parseDouble(System.getProperty("test.regression.min.increase", "0.2")),
+                Long.getLong("test.regression.min.increase.ms", 50L));
+    }
+
+    public List<Regression> detect(Map<String, Long> current, Map<String, List<Long>> history) {
+        Map<String, Double> baselines = new TreeMap<>();
+        List<Double> ratios = new ArrayList<>();
+        current.forEach((key, value) -> {
+            List<Long> samples = history.get(key);
+            if (samples != null && samples.size() >= minSamples) {
+                double median = median(samples);
+                baselines.put(key, median);
+                if (median > 0) {
+                    ratios.add(value / median);
+                }
+            }
+        });
+        // With only a couple of comparable tests there is no telling a slow agent from a slow test
+        double runFactor = ratios.size() >= 3 ? Math.max(1.0, median(ratios)) : 1.0;
+
+        List<Regression> regressions = new ArrayList<>();
+        baselines.forEach((key, median) -> {
+            List<Long> samples = history.get(key);
+            List<Double> deviations = new ArrayList<>();
+            for (Long sample : samples) {
+                deviations.add(Math.abs(sample - median));
+            }
+            double mad = median(deviations);
+            // A perfectly stable history has MAD 0; 5% of the median stands in for unmeasured jitter
+            double spread = Math.max(MAD_SCALE * mad, Math.max(1.0, 0.05 * median));
+
+            long observed = current.get(key);
+            double normalized = observed / runFactor;
+            double score = (normalized - median) / spread;
+            if (score > threshold
+                    && normalized > median * (1 + minRelativeIncrease)
+                    && normalized - median > minAbsoluteIncreaseMillis) {
+                regressions.add(new Regression(key, median, observed, normalized, score));
+            }
+        });
+        regressions.sort((a, b) -> Double.compare(b.getScore(), a.getScore()));
+        return regressions;
+    }
+
+    public static double median(Collection<? extends Number> values) {
+        List<Double> sorted = new ArrayList<>();
+        for (Number value : values) {
+            sorted.add(value.doubleValue());
+        }
+        if (sorted.isEmpty()) {
+            return 0;
+        }
+        sorted.sort(null);
+        int middle = sorted.size() / 2;
+        return sorted.size() % 2 == 1 ? sorted.get(middle) : (sorted.get(middle - 1) + sorted.get(middle)) / 2;
+    }
+
+    public static final class Regression {
+        private final String key;
+        private final double baselineMillis;
+        private final long observedMillis;
+        private final double normalizedMillis;
+        private final double score;
+
+        Regression(String key, double baselineMillis, long observedMillis, double normalizedMillis, double score) {
+            this.key = key;
+            this.baselineMillis = baselineMillis;
+            this.observedMillis = observedMillis;
+            this.normalizedMillis = normalizedMillis;
+            this.score = score;
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        public double getScore() {
+            return score;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s: %d ms (%.0f ms after run-wide slowdown) vs median %.0f ms, %.1f MADs",
+                    key, observedMillis, normalizedMillis, baselineMillis, score);
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.janitri.pages;
+
+/**
+ * Error texts the Janitri login form renders in {@code .invalid-credential-div .normal-text}.
+ */
+public final class LoginMessages {
+    public static final String INVALID_CREDENTIALS = "Invalid Credentials";
+    public static final String USER_NOT_ALLOWED = "User Not Allowed";
+    public static final String NOTIFICATION_REQUIRED = "Notification permission required";
+
+    private LoginMessages() {
+    }
+}
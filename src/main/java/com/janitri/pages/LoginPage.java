@@ -1,5 +1,11 @@
 package com.janitri.pages;
 
+import com.janitri.base.TestConfig;
+import com.janitri.perf.PerformanceBudget;
+import com.janitri.trace.Trace;
+import com.janitri.utils.CachingFieldDecorator;
+import com.janitri.utils.ReadinessCondition;
+import com.janitri.utils.ReadinessConditions;
 import com.janitri.utils.WebDriverUtils;
 import org.openqa.selenium.By;
 import org.openqa.selenium.WebDriver;
@@ -13,10 +19,52 @@ import org.openqa.selenium.JavascriptExecutor;
 import java.time.Duration;
 import java.util.List;
 
+// Core Web Vitals "good" thresholds for LCP and CLS; the rest leaves headroom over the dashboard's current login page
+@PerformanceBudget(ttfbMillis = 800, domContentLoadedMillis = 2500, loadMillis = 4000, lcpMillis = 2500, cls = 0.1,
+        requests = 60, transferKb = 2048, jsHeapMb = 50)
 public class LoginPage {
+    private static final Duration PAGE_LOAD_TIMEOUT = Duration.ofSeconds(20);
+    // Upper bound for a submitted login to show its outcome; the stubbed API answers in milliseconds
+    private static final Duration LOGIN_OUTCOME_TIMEOUT = Duration.ofSeconds(5);
+    private static final Duration TOGGLE_TIMEOUT = Duration.ofSeconds(2);
+    private static final Duration NETWORK_IDLE_TIMEOUT = Duration.ofSeconds(5);
+
+    // Elements that are legitimately absent most of the time; checked with zero-wait probes
+    private static final By NOTIFICATION_DIALOG = By.cssSelector(".dialog-login");
+    private static final By DIALOG = By.cssSelector(".dialog");
+    private static final By ERROR_CONTAINER = By.cssSelector(".invalid-credential-div");
+    private static final By PASSWORD_TOGGLE = By.cssSelector(".passowrd-visible");
+
+    private static final ReadinessCondition<Boolean> LOGIN_FORM_READY = ReadinessConditions.script("login-form-ready",
+            "var visible = function(el) { return !!el && el.getClientRects().length > 0; };" +
+                    "var button = document.querySelector(\"button[type='submit']\");" +
+                    "return document.readyState === 'complete'" +
+                    "  && !!document.querySelector('.login-form')" +
+                    "  && visible(document.getElementById('formEmail'))" +
+                    "  && visible(document.getElementById('formPassword'))" +
+                    "  && visible(button) && !button.disabled;");
+
+    // Anything the form can show in response to a submit: server error, HTML5 validation or a blocking dialog
+    private static final ReadinessCondition<Boolean> LOGIN_OUTCOME_VISIBLE = ReadinessConditions.script(
+            "login-outcome-visible",
+            "var visible = function(el) { return !!el && el.getClientRects().length > 0; };" +
+                    "var error = document.querySelector('.invalid-credential-div');" +
+                    "if (visible(error) && (error.getAttribute('style') || '').indexOf('baseline') >= 0) {" +
+                    "  var text = error.querySelector('.normal-text');" +
+                    "  if (text && text.textContent.trim()) { return true; }" +
+                    "}" +
+                    "var email = document.getElementById('formEmail');" +
+                    "var password = document.getElementById('formPassword');" +
+                    "if ((email && email.validationMessage) || (password && password.validationMessage)) {" +
+                    "  return true;" +
+                    "}" +
+                    "return visible(document.querySelector('.dialog'));");
+
     private WebDriver driver;
     private WebDriverUtils utils;
     private WebDriverWait wait;
+    // Set by a login click until its outcome has been waited for
+    private boolean submitPending;
 
     // Exact selectors based on the React component source code
     @FindBy(id = "formEmail")
@@ -47,7 +95,8 @@ public class LoginPage {
         this.driver = driver;
         this.utils = new WebDriverUtils(driver);
         this.wait = new WebDriverWait(driver, Duration.ofSeconds(20));
-        PageFactory.initElements(driver, this);
+        // Element handles are cached between calls and only re-resolved after navigation or staleness
+        PageFactory.initElements(new CachingFieldDecorator(driver), this);
 
         // Wait for page to load and React components to render
         waitForPageToLoad();
@@ -55,32 +104,32 @@ public class LoginPage {
 
     private void waitForPageToLoad() {
         try {
-            // Wait for the main login form to be present
-            wait.until(ExpectedConditions.presenceOfElementLocated(By.cssSelector(".login-form")));
-
-            // Additional wait for React components to fully render
-            Thread.sleep(3000);
+            // Wait until React has rendered the form with visible inputs and submit button
+            utils.getWaitEngine().until(LOGIN_FORM_READY, PAGE_LOAD_TIMEOUT);
+
+            // Then until the app's start-up requests (config, session probe) have settled. A page that keeps
+            // polling only costs the short timeout, since the form itself is already usable.
+            if (TestConfig.networkIdleEnabled() && !utils.getWaitEngine().tryUntil(ReadinessConditions.networkIdle(
+                    TestConfig.networkQuietMillis(), TestConfig.networkIdleMaxInFlight()), NETWORK_IDLE_TIMEOUT)) {
+                Trace.warn("Network did not go idle within {}, continuing with the rendered form", NETWORK_IDLE_TIMEOUT);
+            }
 
             // Handle notification dialog if it appears
             handleNotificationDialog();
 
         } catch (Exception e) {
-            System.out.println("Page load wait completed with exception: " + e.getMessage());
+            Trace.warn("Page load wait completed with exception: {}", e.getMessage());
         }
     }
 
     private void handleNotificationDialog() {
-        try {
-            // Check if notification dialog is open
-            WebElement dialog = driver.findElement(By.cssSelector(".dialog-login"));
-            if (dialog.isDisplayed()) {
-                System.out.println("Notification dialog detected - this may block login functionality");
-                // The dialog requires user interaction to enable notifications
-                // For testing purposes, we'll note this but continue
-            }
-        } catch (Exception e) {
-            // Dialog not present, continue normally
-            System.out.println("No notification dialog detected");
+        // Zero-wait probe: the dialog is normally absent and must not cost the implicit wait
+        if (isNotificationDialogDisplayed()) {
+            Trace.event("Notification dialog detected - this may block login functionality");
+            // The dialog requires user interaction to enable notifications
+            // For testing purposes, we'll note this but continue
+        } else {
+            Trace.event("No notification dialog detected");
         }
     }
 
@@ -89,9 +138,9 @@ public class LoginPage {
             wait.until(ExpectedConditions.elementToBeClickable(userIdInput));
             userIdInput.clear();
             userIdInput.sendKeys(userId);
-            System.out.println("Successfully entered user ID: " + userId);
+            Trace.event("Successfully entered user ID: {}", userId);
         } catch (Exception e) {
-            System.out.println("Could not enter user ID: " + e.getMessage());
+            Trace.warn("Could not enter user ID: {}", e.getMessage());
         }
     }
 
@@ -100,9 +149,9 @@ public class LoginPage {
             wait.until(ExpectedConditions.elementToBeClickable(passwordInput));
             passwordInput.clear();
             passwordInput.sendKeys(password);
-            System.out.println("Successfully entered password");
+            Trace.event("Successfully entered password");
         } catch (Exception e) {
-            System.out.println("Could not enter password: " + e.getMessage());
+            Trace.warn("Could not enter password: {}", e.getMessage());
         }
     }
 
@@ -113,25 +162,24 @@ public class LoginPage {
             // Check if button text indicates loading state
             String buttonText = loginButton.getText();
             if (buttonText.contains("Logging in...")) {
-                System.out.println("Login button is in loading state");
+                Trace.event("Login button is in loading state");
                 return;
             }
 
             loginButton.click();
-            System.out.println("Successfully clicked login button");
-
-            // Wait a moment for any response
-            Thread.sleep(1000);
+            submitPending = true;
+            Trace.event("Successfully clicked login button");
 
         } catch (Exception e) {
-            System.out.println("Could not click login button: " + e.getMessage());
+            Trace.warn("Could not click login button: {}", e.getMessage());
 
             // Try JavaScript click as fallback
             try {
                 ((JavascriptExecutor) driver).executeScript("arguments[0].click();", loginButton);
-                System.out.println("Login button clicked using JavaScript");
+                submitPending = true;
+                Trace.event("Login button clicked using JavaScript");
             } catch (Exception jsException) {
-                System.out.println("JavaScript click also failed: " + jsException.getMessage());
+                Trace.warn("JavaScript click also failed: {}", jsException.getMessage());
             }
         }
     }
@@ -139,14 +187,19 @@ public class LoginPage {
     public void clickPasswordVisibilityToggle() {
         try {
             if (isPasswordToggleDisplayed()) {
+                String typeBefore = passwordInput.getAttribute("type");
                 passwordVisibilityToggle.click();
-                System.out.println("Clicked password visibility toggle");
-                Thread.sleep(500); // Wait for animation
+                Trace.event("Clicked password visibility toggle");
+
+                // Wait for the input type to flip rather than a fixed animation delay
+                utils.getWaitEngine().tryUntil(ReadinessConditions.script("password-type-toggled",
+                        "return document.getElementById('formPassword').type !== arguments[0];", typeBefore),
+                        TOGGLE_TIMEOUT);
             } else {
-                System.out.println("Password visibility toggle not found");
+                Trace.event("Password visibility toggle not found");
             }
         } catch (Exception e) {
-            System.out.println("Could not click password toggle: " + e.getMessage());
+            Trace.warn("Could not click password toggle: {}", e.getMessage());
         }
     }
 
@@ -154,7 +207,7 @@ public class LoginPage {
         try {
             return loginButton.isEnabled() && !loginButton.getText().contains("Logging in...");
         } catch (Exception e) {
-            System.out.println("Could not check login button status: " + e.getMessage());
+            Trace.warn("Could not check login button status: {}", e.getMessage());
             return false;
         }
     }
@@ -175,16 +228,33 @@ public class LoginPage {
         }
     }
 
+    // Waits until a submitted login either leaves the page or renders an outcome; false on timeout
+    public boolean waitForLoginOutcome(String loginUrl, Duration timeout) {
+        ReadinessCondition<Boolean> outcome = ReadinessCondition.of("login-round-trip",
+                d -> !loginUrl.equals(d.getCurrentUrl()) || LOGIN_OUTCOME_VISIBLE.apply(d));
+        boolean answered = utils.getWaitEngine().tryUntil(outcome, timeout);
+        submitPending = false;
+        return answered;
+    }
+
+    // Waits for the outcome only while a submit is in flight; otherwise reads what the form shows right now
     public String getErrorMessage() {
+        return getErrorMessage(submitPending ? LOGIN_OUTCOME_TIMEOUT : Duration.ZERO);
+    }
+
+    public String getErrorMessage(Duration outcomeTimeout) {
         try {
-            // Wait for error message to appear
-            Thread.sleep(2000);
+            if (!outcomeTimeout.isZero()) {
+                // Wait until the form shows an outcome (server error, validation or blocking dialog)
+                utils.getWaitEngine().tryUntil(LOGIN_OUTCOME_VISIBLE, outcomeTimeout);
+            }
+            submitPending = false;
 
             // First check for the main error message div
             if (isErrorMessageDisplayed()) {
                 String errorText = errorMessage.getText().trim();
                 if (!errorText.isEmpty()) {
-                    System.out.println("Found error message: " + errorText);
+                    Trace.event("Found error message: {}", errorText);
                     return errorText;
                 }
             }
@@ -192,28 +262,23 @@ public class LoginPage {
             // Check for form validation messages (HTML5 validation)
             String emailValidation = userIdInput.getAttribute("validationMessage");
             if (emailValidation != null && !emailValidation.isEmpty()) {
-                System.out.println("Found email validation message: " + emailValidation);
+                Trace.event("Found email validation message: {}", emailValidation);
                 return emailValidation;
             }
 
             String passwordValidation = passwordInput.getAttribute("validationMessage");
             if (passwordValidation != null && !passwordValidation.isEmpty()) {
-                System.out.println("Found password validation message: " + passwordValidation);
+                Trace.event("Found password validation message: {}", passwordValidation);
                 return passwordValidation;
             }
 
             // Check if the notification dialog is blocking login
-            try {
-                WebElement dialog = driver.findElement(By.cssSelector(".dialog"));
-                if (dialog.isDisplayed()) {
-                    return "Notification permission required - dialog is blocking login";
-                }
-            } catch (Exception e) {
-                // Dialog not found, that's fine
+            if (utils.getProbe().isDisplayed(DIALOG)) {
+                return LoginMessages.NOTIFICATION_REQUIRED + " - dialog is blocking login";
             }
 
         } catch (Exception e) {
-            System.out.println("Error getting error message: " + e.getMessage());
+            Trace.warn("Error getting error message: {}", e.getMessage());
         }
         return "";
     }
@@ -221,8 +286,10 @@ public class LoginPage {
     public boolean isErrorMessageDisplayed() {
         try {
             // Check if error message container is visible and the parent div has the error styling
-            WebElement errorContainer = driver.findElement(By.cssSelector(".invalid-credential-div"));
-            return errorContainer.isDisplayed() && errorContainer.getAttribute("style").contains("baseline");
+            return utils.getProbe().find(ERROR_CONTAINER)
+                    .map(container -> container.isDisplayed()
+                            && String.valueOf(container.getAttribute("style")).contains("baseline"))
+                    .orElse(false);
         } catch (Exception e) {
             return false;
         }
@@ -262,7 +329,8 @@ public class LoginPage {
 
     public boolean isPasswordToggleDisplayed() {
         try {
-            return passwordVisibilityToggle.isDisplayed();
+            // The toggle is optional, so probe instead of resolving the @FindBy proxy
+            return utils.getProbe().isDisplayed(PASSWORD_TOGGLE);
         } catch (Exception e) {
             return false;
         }
@@ -288,9 +356,9 @@ public class LoginPage {
         try {
             userIdInput.clear();
             passwordInput.clear();
-            System.out.println("Cleared input fields");
+            Trace.event("Cleared input fields");
         } catch (Exception e) {
-            System.out.println("Could not clear fields: " + e.getMessage());
+            Trace.warn("Could not clear fields: {}", e.getMessage());
         }
     }
 
@@ -302,7 +370,6 @@ public class LoginPage {
         // Try to submit the form and check for validation
         try {
             clickLoginButton();
-            Thread.sleep(1500);
 
             // Check if HTML5 validation prevents submission
             boolean hasValidationError = !getErrorMessage().isEmpty();
@@ -313,14 +380,14 @@ public class LoginPage {
             boolean passwordRequired = (Boolean) ((JavascriptExecutor) driver)
                     .executeScript("return arguments[0].validity.valueMissing;", passwordInput);
 
-            System.out.println("Email required validation: " + emailRequired);
-            System.out.println("Password required validation: " + passwordRequired);
-            System.out.println("Has validation error: " + hasValidationError);
+            Trace.event("Email required validation: {}", emailRequired);
+            Trace.event("Password required validation: {}", passwordRequired);
+            Trace.event("Has validation error: {}", hasValidationError);
 
             return emailRequired || passwordRequired || hasValidationError;
 
         } catch (Exception e) {
-            System.out.println("Error in empty fields test: " + e.getMessage());
+            Trace.warn("Error in empty fields test: {}", e.getMessage());
             return false;
         }
     }
@@ -331,29 +398,27 @@ public class LoginPage {
 
             // Initial state should be masked
             boolean initiallyMasked = isPasswordMasked();
-            System.out.println("Password initially masked: " + initiallyMasked);
+            Trace.event("Password initially masked: {}", initiallyMasked);
 
             if (isPasswordToggleDisplayed()) {
                 // Click to show password
                 clickPasswordVisibilityToggle();
-                Thread.sleep(500);
                 boolean afterFirstToggle = isPasswordVisible();
-                System.out.println("Password visible after first toggle: " + afterFirstToggle);
+                Trace.event("Password visible after first toggle: {}", afterFirstToggle);
 
                 // Click to hide password again
                 clickPasswordVisibilityToggle();
-                Thread.sleep(500);
                 boolean afterSecondToggle = isPasswordMasked();
-                System.out.println("Password masked after second toggle: " + afterSecondToggle);
+                Trace.event("Password masked after second toggle: {}", afterSecondToggle);
 
                 return initiallyMasked && afterFirstToggle && afterSecondToggle;
             } else {
-                System.out.println("Password toggle not available on this page");
+                Trace.event("Password toggle not available on this page");
                 return initiallyMasked; // Still pass if password is masked by default
             }
 
         } catch (Exception e) {
-            System.out.println("Error testing password toggle: " + e.getMessage());
+            Trace.warn("Error testing password toggle: {}", e.getMessage());
             return false;
         }
     }
@@ -364,23 +429,16 @@ public class LoginPage {
         enterPassword("invalidpassword");
         clickLoginButton();
 
-        try {
-            // Wait longer for network request and response
-            Thread.sleep(6000);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-        }
-
+        // getErrorMessage waits for the server response to be rendered
         String errorMsg = getErrorMessage();
-        System.out.println("Debug - Error message captured: '" + errorMsg + "'");
+        Trace.event("Debug - Error message captured: '{}'", errorMsg);
         return errorMsg;
     }
 
     // Additional helper methods for comprehensive testing
     public boolean isNotificationDialogDisplayed() {
         try {
-            WebElement dialog = driver.findElement(By.cssSelector(".dialog-login"));
-            return dialog.isDisplayed();
+            return utils.getProbe().isDisplayed(NOTIFICATION_DIALOG);
         } catch (Exception e) {
             return false;
         }
@@ -418,4 +476,15 @@ public class LoginPage {
             return "";
         }
     }
-}
\ No newline at end of file
+
+    // Reads every tracked element in one round trip; prefer this for assertions that only read state
+    public LoginPageSnapshot snapshot() {
+        try {
+            return LoginPageSnapshot.fromScriptResult(
+                    ((JavascriptExecutor) driver).executeScript(LoginPageSnapshot.SCRIPT));
+        } catch (Exception e) {
+            Trace.warn("Could not capture page snapshot: {}", e.getMessage());
+            return LoginPageSnapshot.empty();
+        }
+    }
+}
@@ -0,0 +1,236 @@
+package com.janitri.pages;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Immutable view of every element LoginPage tracks, captured in a single executeScript call so
+ * read-heavy assertions do not pay one chromedriver round trip per property.
+ */
+public final class LoginPageSnapshot {
+    static final String USER_ID_INPUT = "userIdInput";
+    static final String PASSWORD_INPUT = "passwordInput";
+    static final String LOGIN_BUTTON = "loginButton";
+    static final String PASSWORD_TOGGLE = "passwordVisibilityToggle";
+    static final String ERROR_CONTAINER = "errorContainer";
+    static final String ERROR_MESSAGE = "errorMessage";
+    static final String PAGE_TITLE = "pageTitle";
+    static final String JANITRI_LOGO = "janitriLogo";
+    static final String NOTIFICATION_DIALOG = "notificationDialog";
+    static final String INPUT_LABELS = "inputLabels";
+
+    // Returns {name: state} for single elements and {inputLabels: [state...]} for the label list
+    static final String SCRIPT =
+            "var describe = function(el) {" +
+                    "  if (!el) { return {present: false}; }" +
+                    "  var style = window.getComputedStyle(el);" +
+                    "  var attributes = {};" +
+                    "  ['type', 'placeholder', 'style', 'class', 'value'].forEach(function(name) {" +
+                    "    var value = name === 'value' ? el.value : el.getAttribute(name);" +
+                    "    if (value !== null && value !== undefined) { attributes[name] = String(value); }" +
+                    "  });" +
+                    "  return {" +
+                    "    present: true," +
+                    "    displayed: el.getClientRects().length > 0 && style.visibility !== 'hidden'" +
+                    "      && style.opacity !== '0'," +
+                    "    enabled: !el.disabled," +
+                    "    text: (el.innerText || '').trim()," +
+                    "    attributes: attributes," +
+                    "    validationMessage: el.validationMessage || ''," +
+                    "    valueMissing: !!(el.validity && el.validity.valueMissing)" +
+                    "  };" +
+                    "};" +
+                    "var one = function(selector) { return describe(document.querySelector(selector)); };" +
+                    "return {" +
+                    "  userIdInput: one('#formEmail')," +
+                    "  passwordInput: one('#formPassword')," +
+                    "  loginButton: one(\"button[type='submit']\")," +
+                    "  passwordVisibilityToggle: one('.passowrd-visible')," +
+                    "  errorContainer: one('.invalid-credential-div')," +
+                    "  errorMessage: one('.invalid-credential-div .normal-text')," +
+                    "  pageTitle: one('.sub-title')," +
+                    "  janitriLogo: one('.login-janitri-logo')," +
+                    "  notificationDialog: one('.dialog-login')," +
+                    "  inputLabels: Array.prototype.map.call(document.querySelectorAll('.login-input-label'), describe)" +
+                    "};";
+
+    private final Map<String, ElementState> elements;
+    private final List<ElementState> inputLabels;
+
+    private LoginPageSnapshot(Map<String, ElementState> elements, List<ElementState> inputLabels) {
+        this.elements = Collections.unmodifiableMap(elements);
+        this.inputLabels = Collections.unmodifiableList(inputLabels);
+    }
+
+    @SuppressWarnings("unchecked")
+    static LoginPageSnapshot fromScriptResult(Object result) {
+        Map<String, Object> raw = result instanceof Map ? (Map<String, Object>) result : Collections.emptyMap();
+        Map<String, ElementState> elements = new HashMap<>();
+        raw.forEach((name, value) -> {
+            if (value instanceof Map) {
+                elements.put(name, ElementState.from((Map<String, Object>) value));
+            }
+        });
+        Object labels = raw.get(INPUT_LABELS);
+        List<ElementState> inputLabels = labels instanceof List
+                ? ((List<Object>) labels).stream()
+                        .map(label -> ElementState.from((Map<String, Object>) label))
+                        .collect(Collectors.toList())
+                : Collections.emptyList();
+        return new LoginPageSnapshot(elements, inputLabels);
+    }
+
+    static LoginPageSnapshot empty() {
+        return new LoginPageSnapshot(new HashMap<>(), Collections.emptyList());
+    }
+
+    public ElementState element(String name) {
+        return elements.getOrDefault(name, ElementState.ABSENT);
+    }
+
+    public List<ElementState> getInputLabels() {
+        return inputLabels;
+    }
+
+    public boolean isUserIdInputDisplayed() {
+        return element(USER_ID_INPUT).isDisplayed();
+    }
+
+    public boolean isPasswordInputDisplayed() {
+        return element(PASSWORD_INPUT).isDisplayed();
+    }
+
+    public boolean isLoginButtonDisplayed() {
+        return element(LOGIN_BUTTON).isDisplayed();
+    }
+
+    public boolean isLoginButtonEnabled() {
+        ElementState button = element(LOGIN_BUTTON);
+        return button.isEnabled() && !button.getText().contains("Logging in...");
+    }
+
+    public boolean isPasswordToggleDisplayed() {
+        return element(PASSWORD_TOGGLE).isDisplayed();
+    }
+
+    public boolean isJanitriLogoDisplayed() {
+        return element(JANITRI_LOGO).isDisplayed();
+    }
+
+    public boolean isPageTitleDisplayed() {
+        ElementState title = element(PAGE_TITLE);
+        return title.isDisplayed() && !title.getText().isEmpty();
+    }
+
+    public boolean isNotificationDialogDisplayed() {
+        return element(NOTIFICATION_DIALOG).isDisplayed();
+    }
+
+    public boolean isErrorMessageDisplayed() {
+        ElementState container = element(ERROR_CONTAINER);
+        return container.isDisplayed() && container.getAttribute("style").contains("baseline");
+    }
+
+    public boolean areInputLabelsDisplayed() {
+        return inputLabels.size() >= 2 && inputLabels.stream().allMatch(ElementState::isDisplayed);
+    }
+
+    public boolean isPasswordMasked() {
+        return "password".equals(element(PASSWORD_INPUT).getAttribute("type"));
+    }
+
+    public String getPageTitle() {
+        return element(PAGE_TITLE).getText();
+    }
+
+    public String getLoginButtonText() {
+        return element(LOGIN_BUTTON).getText();
+    }
+
+    public String getErrorMessage() {
+        return element(ERROR_MESSAGE).getText();
+    }
+
+    public String getUserIdPlaceholder() {
+        return element(USER_ID_INPUT).getAttribute("placeholder");
+    }
+
+    public String getPasswordPlaceholder() {
+        return element(PASSWORD_INPUT).getAttribute("placeholder");
+    }
+
+    public static final class ElementState {
+        static final ElementState ABSENT = new ElementState(false, false, false, "",
+                Collections.emptyMap(), "", false);
+
+        private final boolean present;
+        private final boolean displayed;
+        private final boolean enabled;
+        private final String text;
+        private final Map<String, String> attributes;
+        private final String validationMessage;
+        private final boolean valueMissing;
+
+        private ElementState(boolean present, boolean displayed, boolean enabled, String text,
+                             Map<String, String> attributes, String validationMessage, boolean valueMissing) {
+            this.present = present;
+            this.displayed = displayed;
+            this.enabled = enabled;
+            this.text = text;
+            this.attributes = attributes;
+            this.validationMessage = validationMessage;
+            this.valueMissing = valueMissing;
+        }
+
+        @SuppressWarnings("unchecked")
+        static ElementState from(Map<String, Object> raw) {
+            if (!Boolean.TRUE.equals(raw.get("present"))) {
+                return ABSENT;
+            }
+            Map<String, String> attributes = new HashMap<>();
+            Object rawAttributes = raw.get("attributes");
+            if (rawAttributes instanceof Map) {
+                ((Map<String, Object>) rawAttributes).forEach((name, value) -> attributes.put(name, String.valueOf(value)));
+            }
+            return new ElementState(true,
+                    Boolean.TRUE.equals(raw.get("displayed")),
+                    Boolean.TRUE.equals(raw.get("enabled")),
+                    String.valueOf(raw.getOrDefault("text", "")),
+                    Collections.unmodifiableMap(attributes),
+                    String.valueOf(raw.getOrDefault("validationMessage", "")),
+                    Boolean.TRUE.equals(raw.get("valueMissing")));
+        }
+
+        public boolean isPresent() {
+            return present;
+        }
+
+        public boolean isDisplayed() {
+            return displayed;
+        }
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public String getText() {
+            return text;
+        }
+
+        // Empty string when the attribute is absent, matching how LoginPage callers treat null
+        public String getAttribute(String name) {
+            return attributes.getOrDefault(name, "");
+        }
+
+        public String getValidationMessage() {
+            return validationMessage;
+        }
+
+        public boolean isValueMissing() {
+            return valueMissing;
+        }
+    }
+}
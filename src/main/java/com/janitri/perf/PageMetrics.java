@@ -0,0 +1,135 @@
+package com.janitri.perf;
+
+import com.janitri.utils.CdpSupport;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Load metrics of the current document: Navigation Timing, resource totals, Web Vitals (LCP, CLS) from
+ * buffered {@code PerformanceObserver}s and the JS heap from DevTools {@code Performance.getMetrics}.
+ * Times are milliseconds from navigation start; a metric the browser cannot report is absent.
+ */
+public class PageMetrics {
+    public static final String TTFB = "ttfb";
+    public static final String DOM_CONTENT_LOADED = "domContentLoaded";
+    public static final String LOAD = "load";
+    public static final String LCP = "lcp";
+    public static final String CLS = "cls";
+    public static final String REQUESTS = "requests";
+    public static final String TRANSFER_BYTES = "transferBytes";
+    public static final String JS_HEAP_BYTES = "jsHeapBytes";
+
+    // Buffered observers replay entries recorded before they were created; the timeout lets that
+    // asynchronous replay arrive when a metric has no entries at all
+    private static final String COLLECT_SCRIPT =
+            "var done = arguments[arguments.length - 1];" +
+            "var result = {cls: 0};" +
+            "var observers = [];" +
+            "function observe(type, handle) {" +
+            "  try {" +
+            "    var observer = new PerformanceObserver(function(list) { list.getEntries().forEach(handle); });" +
+            "    observer.observe({type: type, buffered: true});" +
+            "    observers.push(observer);" +
+            "  } catch (e) {}" +
+            "}" +
+            "observe('largest-contentful-paint', function(entry) { result.lcp = entry.startTime; });" +
+            "observe('layout-shift', function(entry) { if (!entry.hadRecentInput) { result.cls += entry.value; } });" +
+            "setTimeout(function() {" +
+            "  observers.forEach(function(observer) { observer.disconnect(); });" +
+            "  var nav = performance.getEntriesByType('navigation')[0];" +
+            "  var resources = performance.getEntriesByType('resource');" +
+            "  var bytes = nav ? nav.transferSize : 0;" +
+            "  resources.forEach(function(entry) { bytes += entry.transferSize || 0; });" +
+            "  if (nav) {" +
+            "    result.ttfb = nav.responseStart;" +
+            "    result.domContentLoaded = nav.domContentLoadedEventEnd;" +
+            "    if (nav.loadEventEnd > 0) { result.load = nav.loadEventEnd; }" +
+            "  }" +
+            "  result.requests = resources.length + (nav ? 1 : 0);" +
+            "  result.transferBytes = bytes;" +
+            "  if (performance.memory) { result.jsHeapBytes = performance.memory.usedJSHeapSize; }" +
+            "  done(result);" +
+            "}, 100);";
+
+    private final Map<String, Double> values;
+
+    PageMetrics(Map<String, Double> values) {
+        this.values = Collections.unmodifiableMap(new LinkedHashMap<>(values));
+    }
+
+    public static PageMetrics collect(WebDriver driver) {
+        Map<String, Double> values = new LinkedHashMap<>();
+        Object raw = ((JavascriptExecutor) driver).executeAsyncScript(COLLECT_SCRIPT);
+        if (raw instanceof Map) {
+            ((Map<?, ?>) raw).forEach((key, value) -> {
+                if (value instanceof Number) {
+                    values.put(String.valueOf(key), ((Number) value).doubleValue());
+                }
+            });
+        }
+        Double heap = cdpHeapBytes(driver);
+        if (heap != null) {
+            values.put(JS_HEAP_BYTES, heap);
+        }
+        return new PageMetrics(values);
+    }
+
+    public Double get(String name) {
+        return values.get(name);
+    }
+
+    public Map<String, Double> asMap() {
+        return values;
+    }
+
+    public List<String> lines() {
+        List<String> lines = new ArrayList<>();
+        values.forEach((name, value) -> lines.add(String.format("%-17s %s", name, format(name, value))));
+        return lines;
+    }
+
+    static String format(String name, double value) {
+        switch (name) {
+            case CLS:
+                return String.format("%.3f", value);
+            case REQUESTS:
+                return String.format("%.0f", value);
+            case TRANSFER_BYTES:
+                return String.format("%.0f KB", value / 1024);
+            case JS_HEAP_BYTES:
+                return String.format("%.1f MB", value / (1024 * 1024));
+            default:
+                return String.format("%.0f ms", value);
+        }
+    }
+
+    // The DevTools figure counts the whole isolate, which performance.memory rounds and buckets
+    private static Double cdpHeapBytes(WebDriver driver) {
+        if (!CdpSupport.isSupported(driver)) {
+            return null;
+        }
+        try {
+            CdpSupport.execute(driver, "Performance.enable", new HashMap<>());
+            Object metrics = CdpSupport.execute(driver, "Performance.getMetrics", new HashMap<>()).get("metrics");
+            CdpSupport.execute(driver, "Performance.disable", new HashMap<>());
+            if (metrics instanceof List) {
+                for (Object metric : (List<?>) metrics) {
+                    Map<?, ?> entry = (Map<?, ?>) metric;
+                    if ("JSHeapUsedSize".equals(entry.get("name")) && entry.get("value") instanceof Number) {
+                        return ((Number) entry.get("value")).doubleValue();
+                    }
+                }
+            }
+        } catch (Exception e) {
+            // Fall back to performance.memory
+        }
+        return null;
+    }
+}
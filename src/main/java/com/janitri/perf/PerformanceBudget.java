@@ -0,0 +1,30 @@
+package com.janitri.perf;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Load-time budget for the document a page object wraps, checked when the page is registered with the test
+ * (see {@link PerformanceBudgets}). Negative values leave a metric unchecked.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface PerformanceBudget {
+    long ttfbMillis() default -1;
+
+    long domContentLoadedMillis() default -1;
+
+    long loadMillis() default -1;
+
+    long lcpMillis() default -1;
+
+    double cls() default -1;
+
+    int requests() default -1;
+
+    long transferKb() default -1;
+
+    long jsHeapMb() default -1;
+}
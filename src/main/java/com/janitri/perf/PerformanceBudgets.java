@@ -0,0 +1,102 @@
+package com.janitri.perf;
+
+import com.janitri.trace.Trace;
+import org.openqa.selenium.WebDriver;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Checks the loaded document against the {@link PerformanceBudget} of the page object wrapping it.
+ * {@code -Dtest.perf.budgets} chooses what an exceeded budget does: {@code warn} (the default) logs it to
+ * the test's trace, {@code fail} fails the test and {@code off} skips collection altogether. Pages are usually
+ * built in {@code @BeforeMethod}, where an exception would only skip the test, so exceeded budgets are kept for
+ * the thread and {@code PerformanceBudgetListener} fails the test method itself.
+ */
+public class PerformanceBudgets {
+
+    public enum Mode {
+        OFF, WARN, FAIL
+    }
+
+    private static final ThreadLocal<List<String>> EXCEEDED = ThreadLocal.withInitial(ArrayList::new);
+
+    private PerformanceBudgets() {
+    }
+
+    public static Mode mode() {
+        String value = System.getProperty("test.perf.budgets", "warn").trim().toUpperCase();
+        try {
+            return Mode.valueOf(value);
+        } catch (IllegalArgumentException e) {
+            return Mode.WARN;
+        }
+    }
+
+    public static void enforce(Class<?> pageType, WebDriver driver) {
+        PerformanceBudget budget = pageType.getAnnotation(PerformanceBudget.class);
+        Mode mode = mode();
+        if (budget == null || mode == Mode.OFF) {
+            return;
+        }
+
+        PageMetrics metrics;
+        try {
+            metrics = PageMetrics.collect(driver);
+        } catch (Exception e) {
+            Trace.warn("Could not collect performance metrics for {}: {}", pageType.getSimpleName(), e.getMessage());
+            return;
+        }
+        Trace.event("Load metrics for {}:{}{}", pageType.getSimpleName(), System.lineSeparator(),
+                String.join(System.lineSeparator(), metrics.lines()));
+        enforce(pageType, metrics);
+    }
+
+    public static void enforce(Class<?> pageType, PageMetrics metrics) {
+        PerformanceBudget budget = pageType.getAnnotation(PerformanceBudget.class);
+        Mode mode = mode();
+        if (budget == null || mode == Mode.OFF) {
+            return;
+        }
+        List<String> violations = violations(budget, metrics);
+        if (violations.isEmpty()) {
+            return;
+        }
+        String message = "Performance budget exceeded for " + pageType.getSimpleName() + ": "
+                + String.join("; ", violations);
+        Trace.warn(message);
+        if (mode == Mode.FAIL) {
+            EXCEEDED.get().add(message);
+        }
+    }
+
+    // Budgets exceeded on this thread since the last call, in FAIL mode only
+    public static List<String> takeExceeded() {
+        List<String> exceeded = EXCEEDED.get();
+        EXCEEDED.remove();
+        return exceeded;
+    }
+
+    public static List<String> violations(PerformanceBudget budget, PageMetrics metrics) {
+        List<String> violations = new ArrayList<>();
+        check(violations, metrics, PageMetrics.TTFB, budget.ttfbMillis());
+        check(violations, metrics, PageMetrics.DOM_CONTENT_LOADED, budget.domContentLoadedMillis());
+        check(violations, metrics, PageMetrics.LOAD, budget.loadMillis());
+        check(violations, metrics, PageMetrics.LCP, budget.lcpMillis());
+        check(violations, metrics, PageMetrics.CLS, budget.cls());
+        check(violations, metrics, PageMetrics.REQUESTS, budget.requests());
+        check(violations, metrics, PageMetrics.TRANSFER_BYTES,
+                budget.transferKb() < 0 ? -1 : budget.transferKb() * 1024.0);
+        check(violations, metrics, PageMetrics.JS_HEAP_BYTES,
+                budget.jsHeapMb() < 0 ? -1 : budget.jsHeapMb() * 1024.0 * 1024.0);
+        return violations;
+    }
+
+    private static void check(List<String> violations, PageMetrics metrics, String name, double limit) {
+        Double value = metrics.get(name);
+        if (limit < 0 || value == null || value <= limit) {
+            return;
+        }
+        violations.add(name + " " + PageMetrics.format(name, value) + " > " + PageMetrics.format(name, limit));
+    }
+}
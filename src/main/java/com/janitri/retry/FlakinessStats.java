@@ -0,0 +1,148 @@
+package com.janitri.retry;
+
+import com.janitri.base.TestConfig;
+import com.janitri.utils.LockedPropertiesFile;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+
+/**
+ * Run counts per test method, accumulated across runs in {@code .test-history/flakiness.properties}: how
+ * often it ran, how often it only passed after a retry, and how often it failed outright.
+ */
+public class FlakinessStats {
+    private static final Logger LOG = LoggerFactory.getLogger(FlakinessStats.class);
+
+    private final LockedPropertiesFile file;
+
+    public FlakinessStats(Path directory) {
+        this.file = new LockedPropertiesFile(directory.resolve("flakiness.properties"),
+                "Per-test runs, passes after retry (flaky) and final failures");
+    }
+
+    public static FlakinessStats fromSystemProperties() {
+        return new FlakinessStats(TestConfig.historyDir());
+    }
+
+    public Map<String, Entry> load() {
+        try {
+            return toEntries(file.read());
+        } catch (IOException e) {
+            LOG.warn("Could not read flakiness stats {}: {}", file.getPath(), e.getMessage());
+            return new TreeMap<>();
+        }
+    }
+
+    public void record(Map<String, Entry> observed) {
+        if (observed.isEmpty()) {
+            return;
+        }
+        try {
+            file.update(properties -> observed.forEach((key, entry) -> {
+                add(properties, key + ".runs", entry.runs);
+                add(properties, key + ".flaky", entry.flaky);
+                add(properties, key + ".failed", entry.failed);
+            }));
+        } catch (IOException e) {
+            LOG.warn("Could not update flakiness stats {}: {}", file.getPath(), e.getMessage());
+        }
+    }
+
+    // Chronic offenders by -Dtest.flaky.rate (default 0.2) over at least -Dtest.flaky.min.runs (default 5)
+    public List<String> chronicOffenders() {
+        return chronicOffenders(Double.parseDouble(System.getProperty("test.flaky.rate", "0.2")),
+                Integer.getInteger("test.flaky.min.runs", 5));
+    }
+
+    // Tests that needed a retry in at least the given share of at least minRuns runs, worst first
+    public List<String> chronicOffenders(double flakeRate, int minRuns) {
+        List<Map.Entry<String, Entry>> offenders = new ArrayList<>();
+        for (Map.Entry<String, Entry> entry : load().entrySet()) {
+            if (entry.getValue().runs >= minRuns && entry.getValue().flakeRate() >= flakeRate) {
+                offenders.add(entry);
+            }
+        }
+        offenders.sort(Comparator.comparingDouble(
+                (Map.Entry<String, Entry> entry) -> entry.getValue().flakeRate()).reversed());
+        List<String> keys = new ArrayList<>();
+        offenders.forEach(entry -> keys.add(entry.getKey()));
+        return keys;
+    }
+
+    private static void add(Properties properties, String key, long delta) {
+        properties.setProperty(key, Long.toString(parse(properties.getProperty(key)) + delta));
+    }
+
+    private static Map<String, Entry> toEntries(Properties properties) {
+        Map<String, Entry> entries = new TreeMap<>();
+        for (String name : properties.stringPropertyNames()) {
+            int dot = name.lastIndexOf('.');
+            if (dot <= 0) {
+                continue;
+            }
+            Entry entry = entries.computeIfAbsent(name.substring(0, dot), key -> new Entry());
+            long value = parse(properties.getProperty(name));
+            switch (name.substring(dot + 1)) {
+                case "runs":
+                    entry.runs = value;
+                    break;
+                case "flaky":
+                    entry.flaky = value;
+                    break;
+                case "failed":
+                    entry.failed = value;
+                    break;
+                default:
+                    break;
+            }
+        }
+        return entries;
+    }
+
+    private static long parse(String value) {
+        try {
+            return value == null ? 0 : Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    public static final class Entry {
+        long runs;
+        long flaky;
+        long failed;
+
+        public synchronized void add(boolean retried, boolean passed) {
+            runs++;
+            if (!passed) {
+                failed++;
+            } else if (retried) {
+                flaky++;
+            }
+        }
+
+        public long getRuns() {
+            return runs;
+        }
+
+        public long getFlaky() {
+            return flaky;
+        }
+
+        public long getFailed() {
+            return failed;
+        }
+
+        public double flakeRate() {
+            return runs == 0 ? 0 : (double) flaky / runs;
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.janitri.retry;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Test methods that are known to be chronically flaky and are kept out of the run. The list lives in
+ * {@code quarantine.txt} on the test classpath, one {@code fully.qualified.Class#method} per line. With
+ * {@code -Dtest.quarantine.auto=true} chronic offenders from the flakiness stats are added as well, and
+ * {@code -Dtest.quarantine=off} runs everything.
+ */
+public final class Quarantine {
+    private static final Logger LOG = LoggerFactory.getLogger(Quarantine.class);
+    private static final String RESOURCE = "quarantine.txt";
+
+    private static volatile Set<String> keys;
+
+    private Quarantine() {
+    }
+
+    public static boolean contains(String key) {
+        return load().contains(key);
+    }
+
+    private static Set<String> load() {
+        Set<String> loaded = keys;
+        if (loaded != null) {
+            return loaded;
+        }
+        synchronized (Quarantine.class) {
+            if (keys == null) {
+                Set<String> result = new LinkedHashSet<>();
+                if (!"off".equalsIgnoreCase(System.getProperty("test.quarantine", "on"))) {
+                    result.addAll(readList());
+                    if (Boolean.getBoolean("test.quarantine.auto")) {
+                        result.addAll(FlakinessStats.fromSystemProperties().chronicOffenders());
+                    }
+                }
+                if (!result.isEmpty()) {
+                    LOG.info("Quarantined tests: {}", result);
+                }
+                keys = Collections.unmodifiableSet(result);
+            }
+            return keys;
+        }
+    }
+
+    private static Set<String> readList() {
+        Set<String> result = new LinkedHashSet<>();
+        InputStream in = Quarantine.class.getClassLoader().getResourceAsStream(RESOURCE);
+        if (in == null) {
+            return result;
+        }
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                if (!line.isEmpty() && !line.startsWith("#")) {
+                    result.add(line);
+                }
+            }
+        } catch (IOException e) {
+            LOG.warn("Could not read {}: {}", RESOURCE, e.getMessage());
+        }
+        return result;
+    }
+}
@@ -0,0 +1,25 @@
+package com.janitri.retry;
+
+import com.janitri.base.TestConfig;
+import com.janitri.trace.Trace;
+import org.testng.IRetryAnalyzer;
+import org.testng.ITestResult;
+
+/**
+ * Retries a failed test up to {@code -Dtest.retry.count} times (default 0, no retries). BaseTest sees the retry in its
+ * {@code @AfterMethod} and recovers the same browser in place instead of leasing a new one.
+ */
+public class RetryAnalyzer implements IRetryAnalyzer {
+    private int attempts;
+
+    @Override
+    public boolean retry(ITestResult result) {
+        if (attempts >= TestConfig.retryCount()) {
+            return false;
+        }
+        attempts++;
+        Trace.warn("Retrying {} (attempt {} of {}) after: {}", result.getName(), attempts + 1,
+                TestConfig.retryCount() + 1, String.valueOf(result.getThrowable()));
+        return true;
+    }
+}
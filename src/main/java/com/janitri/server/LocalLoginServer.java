@@ -0,0 +1,184 @@
+package com.janitri.server;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.json.JsonException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-process stand-in for the Janitri dashboard login. It serves a page with the same DOM hooks that
+ * {@code LoginPage} targets and a credential endpoint whose latency and failures are scripted through
+ * {@link LoginScript}, so the suite can run without the shared dev server or any network.
+ */
+public class LocalLoginServer {
+    public static final String LOGIN_PATH = "/api/auth/login";
+
+    private static final Duration HANG_DURATION = Duration.ofSeconds(30);
+    private static final Json JSON = new Json();
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final LoginScript script = new LoginScript();
+    private final byte[] loginPage;
+    private final byte[] dashboardPage;
+    private final byte[] logo;
+
+    private LocalLoginServer(int port, boolean requireNotifications) throws IOException {
+        this.loginPage = new String(resource("login.html"), StandardCharsets.UTF_8)
+                .replace("{{REQUIRE_NOTIFICATIONS}}", String.valueOf(requireNotifications))
+                .getBytes(StandardCharsets.UTF_8);
+        this.dashboardPage = resource("dashboard.html");
+        this.logo = resource("logo.svg");
+
+        AtomicInteger threadIds = new AtomicInteger();
+        this.executor = Executors.newCachedThreadPool(task -> {
+            Thread thread = new Thread(task, "local-login-server-" + threadIds.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        server.setExecutor(executor);
+        server.createContext("/", this::handlePage);
+        server.createContext(LOGIN_PATH, this::handleLogin);
+    }
+
+    public static LocalLoginServer start(int port, boolean requireNotifications) {
+        try {
+            LocalLoginServer localServer = new LocalLoginServer(port, requireNotifications);
+            localServer.server.start();
+            return localServer;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not start local login server on port " + port, e);
+        }
+    }
+
+    public String getBaseUrl() {
+        return "http://localhost:" + server.getAddress().getPort() + "/";
+    }
+
+    public LoginScript script() {
+        return script;
+    }
+
+    public void stop() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handlePage(HttpExchange exchange) throws IOException {
+        String path = exchange.getRequestURI().getPath();
+        switch (path) {
+            case "/":
+            case "/login":
+                send(exchange, 200, "text/html; charset=utf-8", loginPage);
+                break;
+            case "/dashboard":
+                send(exchange, 200, "text/html; charset=utf-8", dashboardPage);
+                break;
+            case "/assets/logo.svg":
+                send(exchange, 200, "image/svg+xml", logo);
+                break;
+            default:
+                send(exchange, 404, "text/plain", "Not Found".getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    private void handleLogin(HttpExchange exchange) throws IOException {
+        if (!"POST".equals(exchange.getRequestMethod())) {
+            send(exchange, 405, "text/plain", "Method Not Allowed".getBytes(StandardCharsets.UTF_8));
+            return;
+        }
+
+        Object parsed;
+        try (InputStream body = exchange.getRequestBody()) {
+            parsed = JSON.toType(new String(body.readAllBytes(), StandardCharsets.UTF_8), Object.class);
+        } catch (JsonException e) {
+            parsed = null;
+        }
+        // A JSON null, an array or non-string credentials would otherwise fail below without any response
+        if (!(parsed instanceof Map) || !isStringOrAbsent(((Map<?, ?>) parsed).get("email"))
+                || !isStringOrAbsent(((Map<?, ?>) parsed).get("password"))) {
+            sendJson(exchange, 400, Map.of("message", "Malformed request"));
+            return;
+        }
+        Map<?, ?> credentials = (Map<?, ?>) parsed;
+
+        sleep(script.nextDelay());
+
+        switch (script.nextFailure()) {
+            case SERVER_ERROR:
+                sendJson(exchange, 500, Map.of("message", "Internal Server Error"));
+                return;
+            case DROP_CONNECTION:
+                exchange.close();
+                return;
+            case TIMEOUT:
+                sleep(HANG_DURATION);
+                exchange.close();
+                return;
+            default:
+                break;
+        }
+
+        LoginScript.Outcome outcome = script.authenticate(
+                (String) credentials.get("email"), (String) credentials.get("password"));
+        Map<String, Object> response = new HashMap<>();
+        if (outcome.status == 200) {
+            response.put("token", "local-" + System.nanoTime());
+        } else {
+            response.put("message", outcome.message);
+        }
+        sendJson(exchange, outcome.status, response);
+    }
+
+    private static boolean isStringOrAbsent(Object value) {
+        return value == null || value instanceof String;
+    }
+
+    private void sendJson(HttpExchange exchange, int status, Map<String, Object> body) throws IOException {
+        send(exchange, status, "application/json", JSON.toJson(body).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void send(HttpExchange exchange, int status, String contentType, byte[] body) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        exchange.getResponseHeaders().set("Cache-Control", "no-store");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static void sleep(Duration duration) {
+        if (duration.isZero() || duration.isNegative()) {
+            return;
+        }
+        try {
+            Thread.sleep(duration.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static byte[] resource(String name) throws IOException {
+        try (InputStream in = LocalLoginServer.class.getResourceAsStream("/local-server/" + name)) {
+            if (in == null) {
+                throw new IOException("Missing local server resource " + name);
+            }
+            return in.readAllBytes();
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.janitri.server;
+
+import com.janitri.pages.LoginMessages;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Programmable behaviour of the local login endpoint: known users, injected latency and failures.
+ */
+public class LoginScript {
+
+    public enum FailureMode {
+        NONE,
+        SERVER_ERROR,
+        DROP_CONNECTION,
+        TIMEOUT
+    }
+
+    public static final String DEFAULT_USER = "valid@janitri.com";
+    public static final String DEFAULT_PASSWORD = "ValidPass123";
+    public static final String BLOCKED_USER = "blocked@janitri.com";
+
+    private final Map<String, String> users = new ConcurrentHashMap<>();
+    private final Set<String> blockedUsers = ConcurrentHashMap.newKeySet();
+    private final Queue<FailureMode> queuedFailures = new ConcurrentLinkedQueue<>();
+
+    private volatile Duration latency = Duration.ZERO;
+    private volatile Duration jitter = Duration.ZERO;
+    private volatile FailureMode failureMode = FailureMode.NONE;
+    private volatile double failureRate;
+
+    public LoginScript() {
+        reset();
+    }
+
+    public LoginScript addUser(String email, String password) {
+        users.put(email, password);
+        return this;
+    }
+
+    public LoginScript blockUser(String email) {
+        blockedUsers.add(email);
+        return this;
+    }
+
+    public LoginScript latency(Duration latency) {
+        this.latency = latency;
+        return this;
+    }
+
+    // Uniform random extra delay in [0, jitter) on top of the fixed latency
+    public LoginScript jitter(Duration jitter) {
+        this.jitter = jitter;
+        return this;
+    }
+
+    public LoginScript failWith(FailureMode mode, double rate) {
+        this.failureMode = mode;
+        this.failureRate = rate;
+        return this;
+    }
+
+    public LoginScript failNext(FailureMode mode) {
+        queuedFailures.add(mode);
+        return this;
+    }
+
+    public final void reset() {
+        users.clear();
+        blockedUsers.clear();
+        queuedFailures.clear();
+        users.put(DEFAULT_USER, DEFAULT_PASSWORD);
+        users.put(BLOCKED_USER, DEFAULT_PASSWORD);
+        blockedUsers.add(BLOCKED_USER);
+        latency = Duration.ZERO;
+        jitter = Duration.ZERO;
+        failureMode = FailureMode.NONE;
+        failureRate = 0;
+    }
+
+    Duration nextDelay() {
+        long jitterMillis = jitter.toMillis();
+        long extra = jitterMillis > 0 ? ThreadLocalRandom.current().nextLong(jitterMillis) : 0;
+        return latency.plusMillis(extra);
+    }
+
+    FailureMode nextFailure() {
+        FailureMode queued = queuedFailures.poll();
+        if (queued != null) {
+            return queued;
+        }
+        if (failureMode != FailureMode.NONE && ThreadLocalRandom.current().nextDouble() < failureRate) {
+            return failureMode;
+        }
+        return FailureMode.NONE;
+    }
+
+    Outcome authenticate(String email, String password) {
+        String expected = email == null ? null : users.get(email);
+        if (expected == null || !expected.equals(password)) {
+            return new Outcome(401, LoginMessages.INVALID_CREDENTIALS);
+        }
+        if (blockedUsers.contains(email)) {
+            return new Outcome(403, LoginMessages.USER_NOT_ALLOWED);
+        }
+        return new Outcome(200, null);
+    }
+
+    static final class Outcome {
+        final int status;
+        final String message;
+
+        Outcome(int status, String message) {
+            this.status = status;
+            this.message = message;
+        }
+    }
+}
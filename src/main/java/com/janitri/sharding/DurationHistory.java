@@ -0,0 +1,71 @@
+package com.janitri.sharding;
+
+import com.janitri.base.TestConfig;
+import com.janitri.utils.LockedPropertiesFile;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Per-method durations from earlier runs, in {@code .test-history/durations.properties} (or
+ * {@code -Dtest.history.dir}). New observations are blended into the stored value, so one slow run moves
+ * the estimate only part of the way. Concurrent runs on one machine merge under a file lock.
+ */
+public class DurationHistory {
+    private static final Logger LOG = LoggerFactory.getLogger(DurationHistory.class);
+    // Weight of the newest observation
+    private static final double SMOOTHING = 0.5;
+
+    private final LockedPropertiesFile file;
+
+    public DurationHistory(Path directory) {
+        this.file = new LockedPropertiesFile(directory.resolve("durations.properties"),
+                "Smoothed test method durations in milliseconds");
+    }
+
+    public static DurationHistory fromSystemProperties() {
+        return new DurationHistory(TestConfig.historyDir());
+    }
+
+    public Map<String, Long> load() {
+        try {
+            return toDurations(file.read());
+        } catch (IOException e) {
+            LOG.warn("Could not read duration history {}: {}", file.getPath(), e.getMessage());
+            return new HashMap<>();
+        }
+    }
+
+    public void record(Map<String, Long> observedMillis) {
+        if (observedMillis.isEmpty()) {
+            return;
+        }
+        try {
+            file.update(properties -> {
+                Map<String, Long> merged = toDurations(properties);
+                observedMillis.forEach((key, observed) -> merged.merge(key, observed,
+                        (previous, latest) -> Math.round(previous * (1 - SMOOTHING) + latest * SMOOTHING)));
+                merged.forEach((key, millis) -> properties.setProperty(key, Long.toString(millis)));
+            });
+        } catch (IOException e) {
+            LOG.warn("Could not update duration history {}: {}", file.getPath(), e.getMessage());
+        }
+    }
+
+    private static Map<String, Long> toDurations(Properties properties) {
+        Map<String, Long> durations = new HashMap<>();
+        for (String key : properties.stringPropertyNames()) {
+            try {
+                durations.put(key, Long.parseLong(properties.getProperty(key).trim()));
+            } catch (NumberFormatException e) {
+                // Skip hand-edited garbage rather than failing the run
+            }
+        }
+        return durations;
+    }
+}
@@ -0,0 +1,59 @@
+package com.janitri.sharding;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Splits test methods into balanced shards with the longest-processing-time-first rule: the slowest
+ * remaining method always goes to the currently lightest shard. Ties are broken by name and shard number, so
+ * every shard computes the same plan from the same history.
+ */
+public final class ShardPlanner {
+
+    private ShardPlanner() {
+    }
+
+    // Shard number (0-based) for every key
+    public static Map<String, Integer> plan(Collection<String> keys, Map<String, Long> estimatesMillis, int shards) {
+        List<String> ordered = new ArrayList<>(keys);
+        ordered.sort(Comparator.comparingLong((String key) -> estimatesMillis.getOrDefault(key, 0L)).reversed()
+                .thenComparing(Comparator.naturalOrder()));
+
+        long[] loads = new long[Math.max(1, shards)];
+        Map<String, Integer> assignment = new HashMap<>();
+        for (String key : ordered) {
+            int lightest = 0;
+            for (int shard = 1; shard < loads.length; shard++) {
+                if (loads[shard] < loads[lightest]) {
+                    lightest = shard;
+                }
+            }
+            loads[lightest] += estimatesMillis.getOrDefault(key, 0L);
+            assignment.put(key, lightest);
+        }
+        return assignment;
+    }
+
+    // Per-key estimates, using the median of known durations for methods without history
+    public static Map<String, Long> estimates(Collection<String> keys, Map<String, Long> history, long fallbackMillis) {
+        List<Long> known = new ArrayList<>();
+        for (String key : keys) {
+            Long duration = history.get(key);
+            if (duration != null) {
+                known.add(duration);
+            }
+        }
+        known.sort(Comparator.naturalOrder());
+        long unknown = known.isEmpty() ? fallbackMillis : known.get(known.size() / 2);
+
+        Map<String, Long> estimates = new HashMap<>();
+        for (String key : keys) {
+            estimates.put(key, history.getOrDefault(key, unknown));
+        }
+        return estimates;
+    }
+}
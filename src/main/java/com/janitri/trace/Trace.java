@@ -0,0 +1,82 @@
+package com.janitri.trace;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Per-thread trace of what a test did. Events go into a fixed-size ring buffer with SLF4J-style
+ * {@code {}} placeholders, and are only formatted when the buffer is flushed. That normally happens
+ * only for a failing test, or for every test with {@code -Dtest.trace.verbose=true}. Only threads that
+ * called {@link #begin()}, and so will flush, buffer at all; anywhere else (DevTools listeners, shutdown
+ * hooks, pool maintenance) events go straight to the log, warnings at warn level and the rest at debug.
+ */
+public final class Trace {
+    private static final Logger LOG = LoggerFactory.getLogger(Trace.class);
+    private static final int CAPACITY = Math.max(16, Integer.getInteger("test.trace.capacity", 512));
+    private static final boolean VERBOSE = Boolean.getBoolean("test.trace.verbose");
+    private static final ThreadLocal<TraceBuffer> BUFFER = new ThreadLocal<>();
+
+    private Trace() {
+    }
+
+    // Starts buffering on this thread; whoever calls it must also flush() or clear() when a unit of work ends
+    public static void begin() {
+        if (BUFFER.get() == null) {
+            BUFFER.set(new TraceBuffer(CAPACITY));
+        }
+    }
+
+    public static void event(String message) {
+        TraceBuffer buffer = BUFFER.get();
+        if (buffer == null) {
+            LOG.debug(message);
+        } else {
+            buffer.add(false, message, null);
+        }
+    }
+
+    public static void event(String format, Object... args) {
+        TraceBuffer buffer = BUFFER.get();
+        if (buffer == null) {
+            LOG.debug(format, args);
+        } else {
+            buffer.add(false, format, args);
+        }
+    }
+
+    // Marks the event so a flushed trace points at what went wrong first
+    public static void warn(String format, Object... args) {
+        TraceBuffer buffer = BUFFER.get();
+        if (buffer == null) {
+            LOG.warn(format, args);
+        } else {
+            buffer.add(true, format, args);
+        }
+    }
+
+    public static boolean isVerbose() {
+        return VERBOSE;
+    }
+
+    // Logs the current thread's events as one block, so parallel tests don't interleave, then clears them
+    public static void flush(String title, boolean failed) {
+        TraceBuffer buffer = BUFFER.get();
+        if (buffer == null || buffer.isEmpty()) {
+            return;
+        }
+        String block = buffer.format(title);
+        buffer.clear();
+        if (failed) {
+            LOG.warn(block);
+        } else {
+            LOG.info(block);
+        }
+    }
+
+    public static void clear() {
+        TraceBuffer buffer = BUFFER.get();
+        if (buffer != null) {
+            buffer.clear();
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.janitri.trace;
+
+import org.slf4j.helpers.MessageFormatter;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+
+/**
+ * Ring buffer behind {@link Trace}. Only ever touched by its owning thread, so it needs no locking; the
+ * oldest events are overwritten once it is full.
+ */
+final class TraceBuffer {
+    private static final DateTimeFormatter TIME = DateTimeFormatter.ofPattern("HH:mm:ss.SSS")
+            .withZone(ZoneId.systemDefault());
+
+    private final long[] times;
+    private final String[] formats;
+    private final Object[][] args;
+    private final boolean[] warnings;
+    private int next;
+    private int size;
+    private long dropped;
+
+    TraceBuffer(int capacity) {
+        times = new long[capacity];
+        formats = new String[capacity];
+        args = new Object[capacity][];
+        warnings = new boolean[capacity];
+    }
+
+    void add(boolean warning, String format, Object[] arguments) {
+        times[next] = System.currentTimeMillis();
+        formats[next] = format;
+        args[next] = arguments;
+        warnings[next] = warning;
+        next = (next + 1) % formats.length;
+        if (size < formats.length) {
+            size++;
+        } else {
+            dropped++;
+        }
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    String format(String title) {
+        StringBuilder block = new StringBuilder("=== Trace: ").append(title).append(" (")
+                .append(Thread.currentThread().getName()).append(") ===");
+        if (dropped > 0) {
+            block.append(System.lineSeparator()).append("  ... ").append(dropped).append(" earlier events dropped");
+        }
+        int start = (next - size + formats.length) % formats.length;
+        for (int i = 0; i < size; i++) {
+            int index = (start + i) % formats.length;
+            String message = args[index] == null ? formats[index]
+                    : MessageFormatter.arrayFormat(formats[index], args[index]).getMessage();
+            block.append(System.lineSeparator())
+                    .append("  ").append(TIME.format(Instant.ofEpochMilli(times[index])))
+                    .append(warnings[index] ? " WARN " : "      ")
+                    .append(message);
+        }
+        return block.toString();
+    }
+
+    void clear() {
+        // Drop references so traced arguments can be collected
+        Arrays.fill(formats, null);
+        Arrays.fill(args, null);
+        next = 0;
+        size = 0;
+        dropped = 0;
+    }
+}
@@ -0,0 +1,42 @@
+package com.janitri.utils;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.pagefactory.ElementLocator;
+
+import java.util.List;
+
+/**
+ * Remembers the element a {@code @FindBy} field resolved to until the page navigates or the handle goes
+ * stale. Lists are always looked up again because a re-render can change their length.
+ */
+public class CachingElementLocator implements ElementLocator {
+    private final ElementLocator delegate;
+    private final WebDriver driver;
+    private WebElement cached;
+    private long cachedEpoch;
+
+    public CachingElementLocator(ElementLocator delegate, WebDriver driver) {
+        this.delegate = delegate;
+        this.driver = driver;
+    }
+
+    @Override
+    public WebElement findElement() {
+        long epoch = NavigationTracker.epochOf(driver);
+        if (cached == null || cachedEpoch != epoch) {
+            cached = delegate.findElement();
+            cachedEpoch = epoch;
+        }
+        return cached;
+    }
+
+    @Override
+    public List<WebElement> findElements() {
+        return delegate.findElements();
+    }
+
+    public void invalidate() {
+        cached = null;
+    }
+}
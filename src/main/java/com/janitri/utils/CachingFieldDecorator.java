@@ -0,0 +1,57 @@
+package com.janitri.utils;
+
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.WrapsElement;
+import org.openqa.selenium.interactions.Locatable;
+import org.openqa.selenium.support.pagefactory.DefaultElementLocatorFactory;
+import org.openqa.selenium.support.pagefactory.DefaultFieldDecorator;
+import org.openqa.selenium.support.pagefactory.ElementLocator;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+
+/**
+ * PageFactory decorator whose {@code @FindBy} proxies reuse a cached element handle. When the handle has
+ * gone stale (for example after a React re-render) the cache is dropped and the call retried once
+ * against a fresh lookup.
+ *
+ * <pre>
+ *     PageFactory.initElements(new CachingFieldDecorator(driver), this);
+ * </pre>
+ */
+public class CachingFieldDecorator extends DefaultFieldDecorator {
+    private final WebDriver driver;
+
+    public CachingFieldDecorator(WebDriver driver) {
+        super(new DefaultElementLocatorFactory(driver));
+        this.driver = driver;
+    }
+
+    @Override
+    protected WebElement proxyForLocator(ClassLoader loader, ElementLocator locator) {
+        CachingElementLocator caching = new CachingElementLocator(locator, driver);
+        InvocationHandler handler = (proxy, method, args) -> {
+            if ("getWrappedElement".equals(method.getName())) {
+                return caching.findElement();
+            }
+            try {
+                return method.invoke(caching.findElement(), args);
+            } catch (InvocationTargetException e) {
+                if (!(e.getCause() instanceof StaleElementReferenceException)) {
+                    throw e.getCause();
+                }
+            }
+            caching.invalidate();
+            try {
+                return method.invoke(caching.findElement(), args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        };
+        return (WebElement) Proxy.newProxyInstance(loader,
+                new Class<?>[]{WebElement.class, WrapsElement.class, Locatable.class}, handler);
+    }
+}
@@ -0,0 +1,45 @@
+package com.janitri.utils;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WrapsDriver;
+import org.openqa.selenium.chromium.HasCdp;
+
+import java.net.URI;
+import java.util.Map;
+
+/**
+ * Raw Chrome DevTools Protocol access that does not depend on a versioned devtools artifact,
+ * so it keeps working when the installed Chrome is newer than the bundled CDP bindings.
+ */
+public class CdpSupport {
+
+    private CdpSupport() {
+    }
+
+    public static Map<String, Object> execute(WebDriver driver, String command, Map<String, Object> params) {
+        WebDriver raw = unwrap(driver);
+        if (!(raw instanceof HasCdp)) {
+            throw new UnsupportedOperationException("Driver does not support CDP: " + raw.getClass().getName());
+        }
+        return ((HasCdp) raw).executeCdpCommand(command, params);
+    }
+
+    public static boolean isSupported(WebDriver driver) {
+        return unwrap(driver) instanceof HasCdp;
+    }
+
+    // Decorated drivers (event listeners, proxies) wrap the real ChromeDriver
+    public static WebDriver unwrap(WebDriver driver) {
+        WebDriver current = driver;
+        while (current instanceof WrapsDriver) {
+            current = ((WrapsDriver) current).getWrappedDriver();
+        }
+        return current;
+    }
+
+    public static String originOf(String url) {
+        URI uri = URI.create(url);
+        String origin = uri.getScheme() + "://" + uri.getHost();
+        return uri.getPort() == -1 ? origin : origin + ":" + uri.getPort();
+    }
+}
@@ -0,0 +1,68 @@
+package com.janitri.utils;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Presence and absence checks that never sit out the implicit wait. Lookups run with the implicit
+ * wait switched to zero and restored afterwards, so asking about an element that is legitimately
+ * missing costs a few milliseconds instead of the full timeout.
+ */
+public class ElementProbe {
+    private final WebDriver driver;
+    private Duration implicitWait;
+    private int depth;
+
+    public ElementProbe(WebDriver driver) {
+        this.driver = driver;
+    }
+
+    public boolean isPresent(By by) {
+        return !findAll(by).isEmpty();
+    }
+
+    public boolean isDisplayed(By by) {
+        return withoutImplicitWait(() -> {
+            List<WebElement> elements = driver.findElements(by);
+            return !elements.isEmpty() && elements.get(0).isDisplayed();
+        });
+    }
+
+    public Optional<WebElement> find(By by) {
+        List<WebElement> elements = findAll(by);
+        return elements.isEmpty() ? Optional.empty() : Optional.of(elements.get(0));
+    }
+
+    public List<WebElement> findAll(By by) {
+        return withoutImplicitWait(() -> driver.findElements(by));
+    }
+
+    // Nested calls share one zero-wait window; only the outermost call restores the timeout
+    public <T> T withoutImplicitWait(Supplier<T> lookup) {
+        if (depth++ > 0) {
+            try {
+                return lookup.get();
+            } finally {
+                depth--;
+            }
+        }
+
+        WebDriver.Timeouts timeouts = driver.manage().timeouts();
+        if (implicitWait == null) {
+            implicitWait = timeouts.getImplicitWaitTimeout();
+        }
+        timeouts.implicitlyWait(Duration.ZERO);
+        try {
+            return lookup.get();
+        } finally {
+            depth--;
+            timeouts.implicitlyWait(implicitWait);
+        }
+    }
+}
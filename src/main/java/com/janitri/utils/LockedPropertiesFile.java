@@ -0,0 +1,58 @@
+package com.janitri.utils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Properties;
+import java.util.function.Consumer;
+
+/**
+ * A properties file shared by parallel forks: updates are read-modify-write under a sibling lock file and
+ * land with an atomic rename, so readers never see a partial file.
+ */
+public class LockedPropertiesFile {
+    private final Path file;
+    private final String comment;
+
+    public LockedPropertiesFile(Path file, String comment) {
+        this.file = file;
+        this.comment = comment;
+    }
+
+    public Properties read() throws IOException {
+        Properties properties = new Properties();
+        if (Files.exists(file)) {
+            try (InputStream in = Files.newInputStream(file)) {
+                properties.load(in);
+            }
+        }
+        return properties;
+    }
+
+    public void update(Consumer<Properties> change) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path lockFile = parent.resolve(file.getFileName() + ".lock");
+        try (FileChannel channel = FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+             FileLock lock = channel.lock()) {
+            Properties properties = read();
+            change.accept(properties);
+
+            Path temp = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                properties.store(out, comment);
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+    }
+
+    public Path getPath() {
+        return file;
+    }
+}
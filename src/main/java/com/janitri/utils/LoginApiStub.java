@@ -0,0 +1,210 @@
+package com.janitri.utils;
+
+import com.janitri.pages.LoginMessages;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.devtools.Command;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.Event;
+import org.openqa.selenium.devtools.HasDevTools;
+import org.openqa.selenium.json.Json;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Answers the login XHR inside the browser through the CDP Fetch domain, so negative-path tests get a
+ * deterministic reply without a round trip to the authentication backend. Fetch only pauses requests whose
+ * URL contains the configured path, and only POSTs among those are answered; everything else never leaves
+ * the browser's network stack. Closing the stub disables Fetch, so a pooled browser carries no interception
+ * into the next test.
+ */
+public class LoginApiStub implements AutoCloseable {
+    // One Fetch.requestPaused listener per browser; DevTools listeners cannot be removed one by one
+    private static final Map<WebDriver, Dispatcher> DISPATCHERS = Collections.synchronizedMap(new WeakHashMap<>());
+
+    // Delayed replies wait here instead of holding up the DevTools event thread
+    private static final ScheduledExecutorService DELAYS = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "login-api-stub-delays");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Dispatcher dispatcher;
+    private final AtomicInteger intercepted = new AtomicInteger();
+    private volatile Reply reply;
+
+    private LoginApiStub(Dispatcher dispatcher, Reply reply) {
+        this.dispatcher = dispatcher;
+        this.reply = reply;
+    }
+
+    public static LoginApiStub install(WebDriver driver, String pathFragment, Reply reply) {
+        WebDriver raw = CdpSupport.unwrap(driver);
+        DevTools devTools = raw instanceof HasDevTools ? ((HasDevTools) raw).maybeGetDevTools().orElse(null) : null;
+        if (devTools == null) {
+            throw new UnsupportedOperationException("Driver does not support DevTools: " + raw.getClass().getName());
+        }
+        Dispatcher dispatcher;
+        synchronized (DISPATCHERS) {
+            dispatcher = DISPATCHERS.computeIfAbsent(raw, key -> new Dispatcher(devTools));
+        }
+        devTools.createSessionIfThereIsNotOne(raw.getWindowHandle());
+
+        LoginApiStub stub = new LoginApiStub(dispatcher, reply);
+        dispatcher.active = stub;
+        Map<String, Object> pattern = new HashMap<>();
+        pattern.put("urlPattern", "*" + pathFragment + "*");
+        pattern.put("requestStage", "Request");
+        Map<String, Object> params = new HashMap<>();
+        params.put("patterns", Collections.singletonList(pattern));
+        devTools.send(new Command<>("Fetch.enable", params));
+        return stub;
+    }
+
+    public LoginApiStub respondWith(Reply reply) {
+        this.reply = reply;
+        return this;
+    }
+
+    public int getInterceptedCount() {
+        return intercepted.get();
+    }
+
+    @Override
+    public void close() {
+        if (dispatcher.active != this) {
+            return;
+        }
+        dispatcher.active = null;
+        try {
+            // Also releases any request still paused, e.g. one waiting out its delay
+            dispatcher.devTools.send(new Command<>("Fetch.disable", new HashMap<>()));
+        } catch (Exception e) {
+            // The page or browser is already gone
+        }
+    }
+
+    private void handle(Map<String, Object> paused) {
+        Object requestId = paused.get("requestId");
+        Map<?, ?> request = (Map<?, ?>) paused.get("request");
+        if (!"POST".equals(request.get("method"))) {
+            // CORS preflight and GETs on the same path go to the network
+            dispatcher.send("Fetch.continueRequest", Map.of("requestId", requestId));
+            return;
+        }
+        Reply current = this.reply;
+        intercepted.incrementAndGet();
+        Runnable answer = current.passThrough
+                ? () -> dispatcher.send("Fetch.continueRequest", Map.of("requestId", requestId))
+                : () -> dispatcher.send("Fetch.fulfillRequest", fulfillment(requestId, request, current));
+        if (current.delay.isZero()) {
+            answer.run();
+        } else {
+            DELAYS.schedule(answer, current.delay.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private static Map<String, Object> fulfillment(Object requestId, Map<?, ?> request, Reply reply) {
+        Object headers = request.get("headers");
+        Object origin = headers instanceof Map ? ((Map<?, ?>) headers).get("Origin") : null;
+        List<Map<String, Object>> responseHeaders = new ArrayList<>();
+        responseHeaders.add(header("Content-Type", "application/json"));
+        responseHeaders.add(header("Access-Control-Allow-Origin", origin == null ? "*" : String.valueOf(origin)));
+        responseHeaders.add(header("Access-Control-Allow-Credentials", "true"));
+
+        Map<String, Object> params = new HashMap<>();
+        params.put("requestId", requestId);
+        params.put("responseCode", reply.status);
+        params.put("responseHeaders", responseHeaders);
+        params.put("body", Base64.getEncoder().encodeToString(reply.body.getBytes(StandardCharsets.UTF_8)));
+        return params;
+    }
+
+    private static Map<String, Object> header(String name, String value) {
+        Map<String, Object> header = new HashMap<>();
+        header.put("name", name);
+        header.put("value", value);
+        return header;
+    }
+
+    private static final class Dispatcher {
+        private final DevTools devTools;
+        private volatile LoginApiStub active;
+
+        @SuppressWarnings("unchecked")
+        Dispatcher(DevTools devTools) {
+            this.devTools = devTools;
+            devTools.addListener(new Event<>("Fetch.requestPaused",
+                    input -> (Map<String, Object>) input.read(Map.class)), this::onPaused);
+        }
+
+        private void onPaused(Map<String, Object> paused) {
+            LoginApiStub stub = active;
+            if (stub == null) {
+                send("Fetch.continueRequest", Map.of("requestId", paused.get("requestId")));
+            } else {
+                stub.handle(paused);
+            }
+        }
+
+        private void send(String method, Map<String, Object> params) {
+            try {
+                devTools.send(new Command<>(method, params));
+            } catch (Exception e) {
+                // The request went away with its page, or Fetch was disabled meanwhile
+            }
+        }
+    }
+
+    public static final class Reply {
+        private static final Json JSON = new Json();
+
+        private final int status;
+        private final String body;
+        private final Duration delay;
+        private final boolean passThrough;
+
+        private Reply(int status, String body, Duration delay, boolean passThrough) {
+            this.status = status;
+            this.body = body;
+            this.delay = delay;
+            this.passThrough = passThrough;
+        }
+
+        public static Reply status(int status, String message) {
+            String body = JSON.toJson(message == null ? Map.of() : Map.of("message", message));
+            return new Reply(status, body, Duration.ZERO, false);
+        }
+
+        public static Reply invalidCredentials() {
+            return status(401, LoginMessages.INVALID_CREDENTIALS);
+        }
+
+        public static Reply userNotAllowed() {
+            return status(403, LoginMessages.USER_NOT_ALLOWED);
+        }
+
+        public static Reply success() {
+            return new Reply(200, JSON.toJson(Map.of("token", "stubbed-token")), Duration.ZERO, false);
+        }
+
+        public static Reply passThrough() {
+            return new Reply(0, null, Duration.ZERO, true);
+        }
+
+        public Reply withDelay(Duration delay) {
+            return new Reply(status, body, delay, passThrough);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.janitri.utils;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.support.events.WebDriverListener;
+
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts navigations (get, back/forward/refresh, window switches) per browser session so cached element
+ * handles can tell that the document they came from has been replaced.
+ */
+public class NavigationTracker implements WebDriverListener {
+    private static final Map<WebDriver, NavigationTracker> TRACKERS = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private final AtomicLong epoch = new AtomicLong();
+    // Only window switches and closes, which change the handle the driver talks to
+    private final AtomicLong windowEpoch = new AtomicLong();
+
+    public static NavigationTracker attach(WebDriver rawDriver) {
+        NavigationTracker tracker = new NavigationTracker();
+        TRACKERS.put(rawDriver, tracker);
+        return tracker;
+    }
+
+    // -1 for untracked drivers, which makes callers fall back to staleness checks only
+    public static long epochOf(WebDriver driver) {
+        NavigationTracker tracker = TRACKERS.get(CdpSupport.unwrap(driver));
+        return tracker == null ? -1 : tracker.epoch.get();
+    }
+
+    // -1 for untracked drivers
+    public static long windowEpochOf(WebDriver driver) {
+        NavigationTracker tracker = TRACKERS.get(CdpSupport.unwrap(driver));
+        return tracker == null ? -1 : tracker.windowEpoch.get();
+    }
+
+    @Override
+    public void afterGet(WebDriver driver, String url) {
+        epoch.incrementAndGet();
+    }
+
+    @Override
+    public void afterAnyNavigationCall(WebDriver.Navigation navigation, Method method, Object[] args, Object result) {
+        epoch.incrementAndGet();
+    }
+
+    @Override
+    public void afterAnyWebDriverCall(WebDriver driver, Method method, Object[] args, Object result) {
+        if ("switchTo".equals(method.getName()) || "close".equals(method.getName())) {
+            epoch.incrementAndGet();
+            windowEpoch.incrementAndGet();
+        }
+    }
+
+    @Override
+    public void afterQuit(WebDriver driver) {
+        TRACKERS.remove(driver);
+    }
+}
@@ -0,0 +1,146 @@
+package com.janitri.utils;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.devtools.Command;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.Event;
+import org.openqa.selenium.devtools.HasDevTools;
+import org.openqa.selenium.devtools.idealized.target.model.SessionID;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Follows the page's network activity through raw DevTools events (no versioned CDP bindings): requests are
+ * in flight from {@code Network.requestWillBeSent} until {@code loadingFinished}/{@code loadingFailed}, and a
+ * new document starts over at {@code Page.lifecycleEvent} "init". The page counts as idle once it has
+ * loaded, nothing is in flight and no request started or ended for the quiet window.
+ */
+public class NetworkIdleTracker {
+    private static final Map<WebDriver, NetworkIdleTracker> TRACKERS = Collections.synchronizedMap(new WeakHashMap<>());
+
+    // Server-sent event streams stay open for the life of the page and would never let it go idle.
+    // WebSockets do not show up as requestWillBeSent at all.
+    private static final String EVENT_SOURCE = "EventSource";
+
+    private final DevTools devTools;
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+    private volatile long lastActivityNanos = System.nanoTime();
+    private volatile boolean loaded;
+    private volatile String mainFrameId = "";
+    private SessionID enabledFor;
+    // Window handle and the NavigationTracker window epoch it was read at; -2 forces the first read
+    private String windowHandle;
+    private long windowEpoch = -2;
+
+    private NetworkIdleTracker(DevTools devTools) {
+        this.devTools = devTools;
+        devTools.addListener(event("Network.requestWillBeSent"), this::onRequest);
+        devTools.addListener(event("Network.loadingFinished"), this::onRequestDone);
+        devTools.addListener(event("Network.loadingFailed"), this::onRequestDone);
+        devTools.addListener(event("Page.lifecycleEvent"), this::onLifecycle);
+    }
+
+    // The tracker for the driver's current window, or null when the driver has no DevTools connection
+    public static NetworkIdleTracker of(WebDriver driver) {
+        WebDriver raw = CdpSupport.unwrap(driver);
+        if (!(raw instanceof HasDevTools)) {
+            return null;
+        }
+        NetworkIdleTracker tracker;
+        synchronized (TRACKERS) {
+            tracker = TRACKERS.get(raw);
+            if (tracker == null) {
+                DevTools devTools = ((HasDevTools) raw).maybeGetDevTools().orElse(null);
+                if (devTools == null) {
+                    return null;
+                }
+                tracker = new NetworkIdleTracker(devTools);
+                TRACKERS.put(raw, tracker);
+            }
+        }
+        tracker.follow(raw, NavigationTracker.windowEpochOf(raw));
+        return tracker;
+    }
+
+    public boolean isIdle(long quietMillis, int maxInFlight) {
+        return loaded && inFlight.size() <= maxInFlight
+                && (System.nanoTime() - lastActivityNanos) / 1_000_000 >= quietMillis;
+    }
+
+    public int getInFlightCount() {
+        return inFlight.size();
+    }
+
+    // The DevTools session is per page; a new one (after a window switch or a new browser context)
+    // needs the Network and Page domains enabled again
+    private synchronized void follow(WebDriver raw, long currentWindowEpoch) {
+        // Re-reading the handle costs a WebDriver round trip, so it only happens after a switch or close.
+        // Untracked drivers (epoch -1) keep the handle read on first use.
+        if (windowHandle == null || (currentWindowEpoch != -1 && currentWindowEpoch != windowEpoch)) {
+            windowHandle = raw.getWindowHandle();
+            windowEpoch = currentWindowEpoch;
+        }
+        devTools.createSessionIfThereIsNotOne(windowHandle);
+        // Chrome uses the target id, which chromedriver exposes as the window handle, for the main frame
+        mainFrameId = windowHandle;
+        SessionID session = devTools.getCdpSession();
+        if (session == null || session.equals(enabledFor)) {
+            return;
+        }
+        inFlight.clear();
+        // Not loaded until the main frame says so. Enabling lifecycle events replays the ones the current
+        // document has already fired, so a page that finished loading before tracking started still reports.
+        loaded = false;
+        lastActivityNanos = System.nanoTime();
+        devTools.send(command("Network.enable"));
+        devTools.send(command("Page.enable"));
+        Map<String, Object> lifecycle = new HashMap<>();
+        lifecycle.put("enabled", true);
+        devTools.send(new Command<>("Page.setLifecycleEventsEnabled", lifecycle));
+        enabledFor = session;
+    }
+
+    private void onRequest(Map<String, Object> params) {
+        if (EVENT_SOURCE.equals(params.get("type"))) {
+            return;
+        }
+        inFlight.add(String.valueOf(params.get("requestId")));
+        lastActivityNanos = System.nanoTime();
+    }
+
+    private void onRequestDone(Map<String, Object> params) {
+        if (inFlight.remove(String.valueOf(params.get("requestId")))) {
+            lastActivityNanos = System.nanoTime();
+        }
+    }
+
+    private void onLifecycle(Map<String, Object> params) {
+        // iframes report their own lifecycle; only the main document's init and load matter
+        if (!mainFrameId.equals(params.get("frameId"))) {
+            return;
+        }
+        Object name = params.get("name");
+        if ("init".equals(name)) {
+            loaded = false;
+            inFlight.clear();
+            lastActivityNanos = System.nanoTime();
+        } else if ("load".equals(name)) {
+            loaded = true;
+            lastActivityNanos = System.nanoTime();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Event<Map<String, Object>> event(String method) {
+        return new Event<>(method, input -> (Map<String, Object>) input.read(Map.class));
+    }
+
+    private static Command<Void> command(String method) {
+        return new Command<>(method, new HashMap<>());
+    }
+}
@@ -0,0 +1,38 @@
+package com.janitri.utils;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.support.ui.ExpectedCondition;
+
+import java.util.function.Function;
+
+/**
+ * An {@link ExpectedCondition} with a stable name, so the wait engine can report how long each kind of
+ * readiness check actually took.
+ */
+public final class ReadinessCondition<T> implements ExpectedCondition<T> {
+    private final String name;
+    private final Function<WebDriver, T> check;
+
+    private ReadinessCondition(String name, Function<WebDriver, T> check) {
+        this.name = name;
+        this.check = check;
+    }
+
+    public static <T> ReadinessCondition<T> of(String name, Function<WebDriver, T> check) {
+        return new ReadinessCondition<>(name, check);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public T apply(WebDriver driver) {
+        return check.apply(driver);
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
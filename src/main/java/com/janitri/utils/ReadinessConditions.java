@@ -0,0 +1,41 @@
+package com.janitri.utils;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebElement;
+
+public class ReadinessConditions {
+
+    private ReadinessConditions() {
+    }
+
+    public static ReadinessCondition<Boolean> documentReady() {
+        return script("document-ready", "return document.readyState === 'complete';");
+    }
+
+    // Document loaded and, per DevTools, no more than maxInFlight requests open for quietMillis.
+    // Without a DevTools connection only the document state is checked.
+    public static ReadinessCondition<Boolean> networkIdle(long quietMillis, int maxInFlight) {
+        return ReadinessCondition.of("network-idle", driver -> {
+            if (!Boolean.TRUE.equals(((JavascriptExecutor) driver).executeScript(
+                    "return document.readyState === 'complete';"))) {
+                return false;
+            }
+            NetworkIdleTracker tracker = NetworkIdleTracker.of(driver);
+            return tracker == null || tracker.isIdle(quietMillis, maxInFlight);
+        });
+    }
+
+    public static ReadinessCondition<Boolean> elementVisible(WebElement element) {
+        return ReadinessCondition.of("element-visible", driver -> element.isDisplayed());
+    }
+
+    public static ReadinessCondition<Boolean> elementClickable(WebElement element) {
+        return ReadinessCondition.of("element-clickable", driver -> element.isDisplayed() && element.isEnabled());
+    }
+
+    // The script must return a boolean; it is evaluated in a single round trip per poll
+    public static ReadinessCondition<Boolean> script(String name, String script, Object... args) {
+        return ReadinessCondition.of(name,
+                driver -> Boolean.TRUE.equals(((JavascriptExecutor) driver).executeScript(script, args)));
+    }
+}
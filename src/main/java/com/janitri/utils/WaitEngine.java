@@ -0,0 +1,75 @@
+package com.janitri.utils;
+
+import org.openqa.selenium.JavascriptException;
+import org.openqa.selenium.NotFoundException;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+
+import java.time.Duration;
+
+/**
+ * Polls named readiness conditions and returns as soon as they hold. Polling starts fast and backs off,
+ * so quick pages are detected within tens of milliseconds while slow ones do not get hammered.
+ */
+public class WaitEngine {
+    private static final long INITIAL_POLL_MILLIS = 25;
+    private static final long MAX_POLL_MILLIS = 500;
+    private static final double BACKOFF_FACTOR = 1.5;
+
+    private final WebDriver driver;
+
+    public WaitEngine(WebDriver driver) {
+        this.driver = driver;
+    }
+
+    public <T> T until(ReadinessCondition<T> condition, Duration timeout) {
+        long start = System.nanoTime();
+        long deadline = start + timeout.toNanos();
+        long pollMillis = INITIAL_POLL_MILLIS;
+        int polls = 0;
+        RuntimeException lastError = null;
+
+        while (true) {
+            polls++;
+            try {
+                T value = condition.apply(driver);
+                if (isSatisfied(value)) {
+                    WaitTimings.record(condition.getName(), System.nanoTime() - start, true, polls);
+                    return value;
+                }
+            } catch (NotFoundException | StaleElementReferenceException | JavascriptException e) {
+                // Page is still rendering or navigating, keep polling
+                lastError = e;
+            }
+
+            long remainingMillis = (deadline - System.nanoTime()) / 1_000_000;
+            if (remainingMillis <= 0) {
+                WaitTimings.record(condition.getName(), System.nanoTime() - start, false, polls);
+                throw new TimeoutException("Condition '" + condition.getName() + "' not met within "
+                        + timeout.toMillis() + "ms", lastError);
+            }
+
+            try {
+                Thread.sleep(Math.min(pollMillis, remainingMillis));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new TimeoutException("Interrupted while waiting for '" + condition.getName() + "'", e);
+            }
+            pollMillis = Math.min(MAX_POLL_MILLIS, (long) (pollMillis * BACKOFF_FACTOR));
+        }
+    }
+
+    public boolean tryUntil(ReadinessCondition<?> condition, Duration timeout) {
+        try {
+            until(condition, timeout);
+            return true;
+        } catch (TimeoutException e) {
+            return false;
+        }
+    }
+
+    private static boolean isSatisfied(Object value) {
+        return value != null && !Boolean.FALSE.equals(value);
+    }
+}
@@ -0,0 +1,54 @@
+package com.janitri.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Suite-wide record of how long each named readiness condition took to be satisfied.
+ */
+public class WaitTimings {
+    private static final Map<String, Stats> STATS = new ConcurrentHashMap<>();
+
+    private WaitTimings() {
+    }
+
+    public static void record(String name, long elapsedNanos, boolean satisfied, int polls) {
+        STATS.computeIfAbsent(name, key -> new Stats()).add(elapsedNanos / 1_000_000, satisfied, polls);
+    }
+
+    public static List<String> report() {
+        List<String> lines = new ArrayList<>();
+        new TreeMap<>(STATS).forEach((name, stats) -> lines.add(stats.describe(name)));
+        return lines;
+    }
+
+    public static void reset() {
+        STATS.clear();
+    }
+
+    private static final class Stats {
+        private long count;
+        private long timeouts;
+        private long polls;
+        private long totalMillis;
+        private long maxMillis;
+
+        synchronized void add(long millis, boolean satisfied, int pollCount) {
+            count++;
+            polls += pollCount;
+            totalMillis += millis;
+            maxMillis = Math.max(maxMillis, millis);
+            if (!satisfied) {
+                timeouts++;
+            }
+        }
+
+        synchronized String describe(String name) {
+            return String.format("%-32s count=%d avg=%dms max=%dms total=%dms polls=%d timeouts=%d",
+                    name, count, totalMillis / count, maxMillis, totalMillis, polls, timeouts);
+        }
+    }
+}
@@ -2,26 +2,36 @@ package com.janitri.utils;
 
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
-import org.openqa.selenium.support.ui.ExpectedConditions;
-import org.openqa.selenium.support.ui.WebDriverWait;
 
 import java.time.Duration;
 
 public class WebDriverUtils {
+    private static final Duration DEFAULT_TIMEOUT = Duration.ofSeconds(10);
+
     private WebDriver driver;
-    private WebDriverWait wait;
+    private WaitEngine waitEngine;
+    private ElementProbe probe;
 
     public WebDriverUtils(WebDriver driver) {
         this.driver = driver;
-        this.wait = new WebDriverWait(driver, Duration.ofSeconds(10));
+        this.waitEngine = new WaitEngine(driver);
+        this.probe = new ElementProbe(driver);
+    }
+
+    public WaitEngine getWaitEngine() {
+        return waitEngine;
+    }
+
+    public ElementProbe getProbe() {
+        return probe;
     }
 
     public void waitForElementToBeClickable(WebElement element) {
-        wait.until(ExpectedConditions.elementToBeClickable(element));
+        waitEngine.until(ReadinessConditions.elementClickable(element), DEFAULT_TIMEOUT);
     }
 
     public void waitForElementToBeVisible(WebElement element) {
-        wait.until(ExpectedConditions.visibilityOf(element));
+        waitEngine.until(ReadinessConditions.elementVisible(element), DEFAULT_TIMEOUT);
     }
 
     public boolean isElementDisplayed(WebElement element) {
@@ -0,0 +1,83 @@
+package com.janitri.http;
+
+import com.janitri.pages.LoginMessages;
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.json.JsonException;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Posts credentials straight to the login endpoint, the way the login form's XHR does. Blocking calls are
+ * meant to run on virtual threads, so thousands of them can be in flight without a thread per request.
+ */
+public class LoginHttpClient {
+    private static final Json JSON = new Json();
+
+    private final HttpClient client;
+    private final URI endpoint;
+    private final Duration timeout;
+
+    public LoginHttpClient(URI endpoint, ExecutorService executor, Duration timeout) {
+        this.endpoint = endpoint;
+        this.timeout = timeout;
+        this.client = HttpClient.newBuilder()
+                .executor(executor)
+                .connectTimeout(timeout)
+                .build();
+    }
+
+    public LoginResponse login(String email, String password) throws IOException, InterruptedException {
+        String body = JSON.toJson(Map.of("email", email, "password", password));
+        HttpRequest request = HttpRequest.newBuilder(endpoint)
+                .timeout(timeout)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        return LoginResponse.of(response.statusCode(), response.body());
+    }
+
+    /**
+     * The endpoint's answer, with the message the login form would render for it.
+     */
+    public record LoginResponse(int status, String message, String token) {
+
+        static LoginResponse of(int status, String body) {
+            Map<String, Object> json;
+            try {
+                json = JSON.toType(body, Json.MAP_TYPE);
+            } catch (JsonException e) {
+                json = Map.of();
+            }
+            return new LoginResponse(status, asString(json.get("message")), asString(json.get("token")));
+        }
+
+        public boolean accepted() {
+            return status == 200 && !token.isEmpty();
+        }
+
+        // Same vocabulary LoginPage.getErrorMessage reads off the page; empty when the login was accepted
+        public String errorMessage() {
+            if (!message.isEmpty()) {
+                return message;
+            }
+            return switch (status) {
+                case 200 -> "";
+                case 401 -> LoginMessages.INVALID_CREDENTIALS;
+                case 403 -> LoginMessages.USER_NOT_ALLOWED;
+                default -> "HTTP " + status;
+            };
+        }
+
+        private static String asString(Object value) {
+            return value == null ? "" : String.valueOf(value);
+        }
+    }
+}
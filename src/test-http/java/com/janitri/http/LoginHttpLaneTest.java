@@ -0,0 +1,156 @@
+package com.janitri.http;
+
+import com.janitri.base.TestConfig;
+import com.janitri.data.LoginCase;
+import com.janitri.data.LoginCases;
+import com.janitri.pages.LoginMessages;
+import com.janitri.server.LocalLoginServer;
+import com.janitri.server.LoginScript;
+import com.janitri.trace.Trace;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Server-side credential checks without a browser. Runs against -Dtest.login.api.url when given, otherwise
+ * against the in-process stand-in server. Only the stand-in gets every request at once and the full random
+ * batch; a real endpoint sees at most -Dtest.http.concurrency requests in flight (default 4).
+ */
+public class LoginHttpLaneTest {
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(10);
+    private static final int REMOTE_CONCURRENCY = 4;
+    private static final int REMOTE_RANDOM_CASES = 50;
+
+    private LocalLoginServer server;
+    private ExecutorService executor;
+    private LoginHttpClient client;
+    private Semaphore inFlight;
+
+    @BeforeClass
+    public void setUpClient() {
+        String configured = System.getProperty("test.login.api.url", "").trim();
+        URI endpoint;
+        if (configured.isEmpty()) {
+            server = LocalLoginServer.start(0, false);
+            endpoint = URI.create(server.getBaseUrl()).resolve(LocalLoginServer.LOGIN_PATH);
+        } else {
+            endpoint = URI.create(configured);
+        }
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+        client = new LoginHttpClient(endpoint, executor, REQUEST_TIMEOUT);
+        inFlight = new Semaphore(Math.max(1, Integer.getInteger("test.http.concurrency",
+                server != null ? Integer.MAX_VALUE : REMOTE_CONCURRENCY)));
+        Trace.event("HTTP lane targeting {}", endpoint);
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void tearDownClient() {
+        if (executor != null) {
+            executor.close();
+        }
+        if (server != null) {
+            server.stop();
+        }
+    }
+
+    @Test(priority = 1, description = "Invalid credentials are rejected with the form's error text")
+    public void testInvalidLogin() throws Exception {
+        LoginHttpClient.LoginResponse response = client.login("invalid@test.com", "invalidpassword");
+
+        Trace.event("Invalid login answered {} '{}'", response.status(), response.errorMessage());
+        Assert.assertFalse(response.accepted(), "Invalid credentials must not be accepted");
+        Assert.assertEquals(response.errorMessage(), LoginMessages.INVALID_CREDENTIALS);
+    }
+
+    @Test(priority = 2, description = "Blocked users are rejected with the form's error text")
+    public void testBlockedUser() throws Exception {
+        LoginHttpClient.LoginResponse response = client.login(LoginScript.BLOCKED_USER, LoginScript.DEFAULT_PASSWORD);
+
+        Assert.assertFalse(response.accepted(), "Blocked users must not be accepted");
+        Assert.assertEquals(response.errorMessage(), LoginMessages.USER_NOT_ALLOWED);
+    }
+
+    @Test(priority = 3, description = "Every server-side case of the login matrix, concurrently")
+    public void testLoginMatrix() throws Exception {
+        // Validation cases never reach the server in the browser, so they belong to the UI lane
+        List<LoginCase> cases = LoginCases.load(TestConfig.loginMatrixSources()).stream()
+                .filter(loginCase -> loginCase.getExpectedOutcome() != LoginCase.Outcome.VALIDATION)
+                .toList();
+
+        List<Callable<String>> checks = new ArrayList<>();
+        for (LoginCase loginCase : cases) {
+            checks.add(() -> check(loginCase, login(loginCase.getUserId(), loginCase.getPassword())));
+        }
+        List<String> failures = new ArrayList<>();
+        for (Future<String> result : executor.invokeAll(checks)) {
+            if (result.get() != null) {
+                failures.add(result.get());
+            }
+        }
+
+        Trace.event("Checked {} login cases over HTTP, {} failed", cases.size(), failures.size());
+        failures.forEach(failure -> Trace.warn(failure));
+        Assert.assertTrue(failures.isEmpty(), failures.size() + " login cases failed over HTTP");
+    }
+
+    @Test(priority = 4, description = "Random credentials are all rejected, at HTTP-tier throughput")
+    public void testRandomCredentials() throws Exception {
+        int count = Integer.getInteger("test.http.random.cases", server != null ? 2000 : REMOTE_RANDOM_CASES);
+        List<Callable<LoginHttpClient.LoginResponse>> logins = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            String email = "randomuser" + i + "-" + System.nanoTime() + "@test.com";
+            String password = "randompass" + i;
+            logins.add(() -> login(email, password));
+        }
+
+        long start = System.nanoTime();
+        List<Future<LoginHttpClient.LoginResponse>> responses = executor.invokeAll(logins);
+        double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+
+        int rejected = 0;
+        for (Future<LoginHttpClient.LoginResponse> response : responses) {
+            if (LoginMessages.INVALID_CREDENTIALS.equals(response.get().errorMessage())) {
+                rejected++;
+            }
+        }
+        Trace.event("{} random logins in {}s ({}/s)", count, String.format("%.2f", seconds),
+                String.format("%.0f", count / seconds));
+        Assert.assertEquals(rejected, count, "Every random credential pair should be rejected");
+    }
+
+    // Virtual threads are unbounded, so the cap on concurrent requests lives here
+    private LoginHttpClient.LoginResponse login(String email, String password) throws Exception {
+        inFlight.acquire();
+        try {
+            return client.login(email, password);
+        } finally {
+            inFlight.release();
+        }
+    }
+
+    // Null when the answer matches the case, otherwise a description of the mismatch
+    private static String check(LoginCase loginCase, LoginHttpClient.LoginResponse response) {
+        String actual = response.errorMessage();
+        boolean matches = switch (loginCase.getExpectedOutcome()) {
+            case SUCCESS -> response.accepted();
+            case REJECTED -> !response.accepted() && (loginCase.getExpectedMessage() == null
+                    ? !actual.isEmpty() : actual.equals(loginCase.getExpectedMessage()));
+            // Any deliberate answer is fine, a server error is not
+            default -> response.status() < 500;
+        };
+        return matches ? null : loginCase + ": expected " + loginCase.getExpectedOutcome()
+                + (loginCase.getExpectedMessage() != null ? " '" + loginCase.getExpectedMessage() + "'" : "")
+                + " but got " + response.status() + " '" + actual + "'";
+    }
+}
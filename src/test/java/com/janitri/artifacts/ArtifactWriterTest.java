@@ -0,0 +1,56 @@
+package com.janitri.artifacts;
+
+import com.janitri.support.TempDirectory;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+public class ArtifactWriterTest {
+
+    private static ArtifactLimits limits(Path directory, long maxTotalBytes) {
+        return new ArtifactLimits(directory, 1024, 1024, 10, 10, maxTotalBytes, Duration.ofDays(7));
+    }
+
+    @Test(description = "Snapshots are written in the background, text gzipped and binaries as they are")
+    public void testSnapshotIsWritten() throws Exception {
+        try (TempDirectory directory = TempDirectory.create("artifacts")) {
+            ArtifactWriter writer = new ArtifactWriter(limits(directory.getPath(), 1 << 20), 1, 4);
+            FailureSnapshot snapshot = new FailureSnapshot("LoginPageTest.testInvalidLogin");
+            snapshot.addText("dom.html", "<html>login</html>", true);
+            snapshot.add("screenshot.png", new byte[]{1, 2, 3}, false);
+
+            Path written = writer.submit(snapshot);
+            writer.drain(Duration.ofSeconds(10));
+
+            Assert.assertTrue(written.getFileName().toString().endsWith("-LoginPageTest.testInvalidLogin"));
+            Assert.assertEquals(Files.readAllBytes(written.resolve("screenshot.png")), new byte[]{1, 2, 3});
+            try (InputStream in = new GZIPInputStream(Files.newInputStream(written.resolve("dom.html.gz")))) {
+                Assert.assertEquals(new String(in.readAllBytes(), StandardCharsets.UTF_8), "<html>login</html>");
+            }
+        }
+    }
+
+    @Test(description = "Pruning deletes the oldest snapshots until the directory fits its size cap")
+    public void testPruneKeepsNewestWithinCap() throws Exception {
+        try (TempDirectory directory = TempDirectory.create("artifacts")) {
+            ArtifactWriter writer = new ArtifactWriter(limits(directory.getPath(), 2_500), 1, 4);
+            for (String name : List.of("20260101-000000-000-a", "20260102-000000-000-b", "20260103-000000-000-c")) {
+                Files.createDirectories(directory.getPath().resolve(name));
+                Files.write(directory.getPath().resolve(name).resolve("screenshot.png"), new byte[1_000]);
+            }
+
+            writer.prune();
+
+            Assert.assertFalse(Files.exists(directory.getPath().resolve("20260101-000000-000-a")));
+            Assert.assertTrue(Files.exists(directory.getPath().resolve("20260102-000000-000-b")));
+            Assert.assertTrue(Files.exists(directory.getPath().resolve("20260103-000000-000-c")));
+        }
+    }
+}
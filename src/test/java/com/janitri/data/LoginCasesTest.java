@@ -0,0 +1,97 @@
+package com.janitri.data;
+
+import com.janitri.pages.LoginMessages;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.stream.Collectors;
+
+public class LoginCasesTest {
+
+    @Test(description = "Credential rows are streamed from every sheet of the manual workbook")
+    public void testWorkbookCases() {
+        List<LoginCase> cases = LoginCases.load("Janitri_Login_Manual_TestCases.xlsx");
+        List<String> ids = cases.stream().map(LoginCase::getId).collect(Collectors.toList());
+
+        // Rows without a UserID/Password pair (toggle, UI and performance cases) are skipped
+        Assert.assertTrue(ids.contains("TC_LOGIN_001"));
+        Assert.assertTrue(ids.contains("TC_NEG_002"));
+        Assert.assertTrue(ids.contains("TC_BND_008"));
+        Assert.assertFalse(ids.contains("TC_LOGIN_007"));
+        Assert.assertFalse(ids.contains("TC_UI_001"));
+        Assert.assertFalse(ids.contains("TC_PERF_002"));
+
+        LoginCase valid = find(cases, "TC_LOGIN_001");
+        Assert.assertEquals(valid.getUserId(), "valid@janitri.com");
+        Assert.assertEquals(valid.getPassword(), "ValidPass123");
+        Assert.assertEquals(valid.getExpectedOutcome(), LoginCase.Outcome.SUCCESS);
+        Assert.assertEquals(valid.getSource(), "Functional Test Cases");
+
+        Assert.assertEquals(find(cases, "TC_LOGIN_002").getExpectedOutcome(), LoginCase.Outcome.REJECTED);
+        Assert.assertEquals(find(cases, "TC_LOGIN_004").getExpectedOutcome(), LoginCase.Outcome.VALIDATION);
+        Assert.assertEquals(find(cases, "TC_LOGIN_004").getUserId(), "");
+        Assert.assertEquals(find(cases, "TC_NEG_002").getUserId(), "<script>alert('xss')</script>");
+        Assert.assertEquals(find(cases, "TC_NEG_002").getExpectedOutcome(), LoginCase.Outcome.HANDLED);
+        Assert.assertEquals(find(cases, "TC_NEG_003").getUserId().length(), 1000);
+        Assert.assertEquals(find(cases, "TC_BND_008").getUserId(), "tëst@example.com");
+    }
+
+    @Test(description = "CSV cases name the exact backend message they expect")
+    public void testCsvCases() {
+        List<LoginCase> cases = LoginCases.load("classpath:data/login-matrix.csv");
+
+        Assert.assertEquals(cases.size(), 10);
+        Assert.assertEquals(find(cases, "TC_CSV_002").getExpectedMessage(), LoginMessages.INVALID_CREDENTIALS);
+        Assert.assertEquals(find(cases, "TC_CSV_004").getExpectedMessage(), LoginMessages.USER_NOT_ALLOWED);
+        Assert.assertEquals(find(cases, "TC_CSV_007").getUserId(), "test,user@janitri.com");
+        Assert.assertEquals(find(cases, "TC_CSV_007").getTitle(), "Email With Comma, Quoted");
+        Assert.assertEquals(find(cases, "TC_CSV_009").getPassword().length(), 512);
+    }
+
+    @Test(description = "Sources are read in order as cases are asked for; missing ones are skipped")
+    public void testIterateSources() {
+        Iterator<LoginCase> cases = LoginCases.iterate("classpath:data/login-matrix.csv, missing.csv, "
+                + "classpath:data/login-matrix.csv");
+
+        List<String> ids = new ArrayList<>();
+        cases.forEachRemaining(loginCase -> ids.add(loginCase.getId()));
+        Assert.assertEquals(ids.size(), 20);
+        Assert.assertEquals(ids.get(0), "TC_CSV_001");
+        Assert.assertEquals(ids.get(10), "TC_CSV_001");
+        Assert.assertFalse(cases.hasNext());
+        Assert.assertThrows(NoSuchElementException.class, cases::next);
+    }
+
+    @Test(description = "Quoted CSV fields keep commas, doubled quotes and line breaks")
+    public void testCsvQuoting() throws Exception {
+        String csv = "A,B\r\n\"x, \"\"y\"\"\",\"line1\nline2\"\r\n\r\nplain,\n";
+        List<Map<String, String>> rows = new ArrayList<>();
+        try (CsvRowReader reader = new CsvRowReader(new StringReader(csv), "inline")) {
+            reader.forEachRemaining(rows::add);
+        }
+
+        Assert.assertEquals(rows.size(), 2);
+        Assert.assertEquals(rows.get(0).get("A"), "x, \"y\"");
+        Assert.assertEquals(rows.get(0).get("B"), "line1\nline2");
+        Assert.assertEquals(rows.get(1).get("A"), "plain");
+        Assert.assertEquals(rows.get(1).get("B"), "");
+    }
+
+    @Test(description = "Cell references map to zero-based column indexes")
+    public void testColumnIndex() {
+        Assert.assertEquals(XlsxRowReader.columnIndex("A1"), 0);
+        Assert.assertEquals(XlsxRowReader.columnIndex("I12"), 8);
+        Assert.assertEquals(XlsxRowReader.columnIndex("AA3"), 26);
+    }
+
+    private static LoginCase find(List<LoginCase> cases, String id) {
+        return cases.stream().filter(c -> c.getId().equals(id)).findFirst()
+                .orElseThrow(() -> new AssertionError("Missing case " + id));
+    }
+}
@@ -0,0 +1,54 @@
+package com.janitri.metrics;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class LatencyHistogramTest {
+
+    @Test(description = "Bucket boundaries cover every value with bounded relative error")
+    public void testBucketBoundaries() {
+        for (long micros = 0; micros < 5_000_000; micros = micros * 3 / 2 + 1) {
+            int index = LatencyHistogram.indexOf(micros);
+            long upper = LatencyHistogram.upperBoundOf(index);
+            Assert.assertTrue(upper >= micros, "Upper bound should not be below the value " + micros);
+            Assert.assertTrue(upper - micros <= Math.max(1, micros / 16),
+                    "Bucket for " + micros + " is too wide: " + upper);
+        }
+    }
+
+    @Test(description = "Percentiles follow the recorded distribution")
+    public void testPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int millis = 1; millis <= 100; millis++) {
+            histogram.recordNanos(millis * 1_000_000L);
+        }
+
+        Assert.assertEquals(histogram.getCount(), 100);
+        Assert.assertEquals(histogram.percentileMillis(0.50), 50.0, 50.0 / 16);
+        Assert.assertEquals(histogram.percentileMillis(0.95), 95.0, 95.0 / 16);
+        Assert.assertEquals(histogram.percentileMillis(0.99), 99.0, 99.0 / 16);
+        Assert.assertEquals(histogram.getMaxMillis(), 100.0, 0.001);
+        Assert.assertEquals(histogram.getMeanMillis(), 50.5, 0.001);
+    }
+
+    @Test(description = "Merged histograms combine counts and extremes")
+    public void testMerge() {
+        LatencyHistogram first = new LatencyHistogram();
+        LatencyHistogram second = new LatencyHistogram();
+        first.recordNanos(2_000_000);
+        second.recordNanos(400_000_000);
+
+        first.merge(second);
+
+        Assert.assertEquals(first.getCount(), 2);
+        Assert.assertEquals(first.getMaxMillis(), 400.0, 0.001);
+        Assert.assertEquals(first.percentileMillis(1.0), 400.0, 0.001);
+    }
+
+    @Test(description = "Element commands are keyed by the locator that found them")
+    public void testLocatorExtraction() {
+        Assert.assertEquals(CommandTimingListener.locatorOf(
+                "[[ChromeDriver: chrome on linux (abc123)] -> id: formEmail]"), "id: formEmail");
+        Assert.assertEquals(CommandTimingListener.locatorOf("plain"), "element");
+    }
+}
@@ -0,0 +1,59 @@
+package com.janitri.metrics;
+
+import com.janitri.support.TempDirectory;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class RegressionDetectorTest {
+    private static final RegressionDetector DETECTOR = new RegressionDetector(5, 3.5, 0.2, 50);
+
+    private static Map<String, List<Long>> history() {
+        Map<String, List<Long>> history = new HashMap<>();
+        history.put("A#a.body", List.of(1_000L, 1_040L, 980L, 1_010L, 3_000L, 1_020L));
+        history.put("B#b.body", List.of(500L, 510L, 490L, 505L, 495L));
+        history.put("C#c.setUp", List.of(2_000L, 2_050L, 1_950L, 2_010L, 1_990L));
+        history.put("D#d.body", List.of(300L, 310L, 290L));
+        return history;
+    }
+
+    @Test(description = "A test that slowed down on its own is flagged; one outlier in its history is not")
+    public void testRegressionIsFlagged() {
+        Map<String, Long> current = Map.of("A#a.body", 1_600L, "B#b.body", 505L, "C#c.setUp", 2_000L);
+
+        List<RegressionDetector.Regression> regressions = DETECTOR.detect(current, history());
+        Assert.assertEquals(regressions.size(), 1, regressions.toString());
+        Assert.assertEquals(regressions.get(0).getKey(), "A#a.body");
+    }
+
+    @Test(description = "Normal jitter and tests with too little history are left alone")
+    public void testNoiseIsTolerated() {
+        Map<String, Long> current = Map.of("A#a.body", 1_080L, "B#b.body", 530L, "C#c.setUp", 1_900L,
+                "D#d.body", 5_000L);
+
+        Assert.assertEquals(DETECTOR.detect(current, history()), List.of());
+    }
+
+    @Test(description = "A run that is uniformly slower, as on a slow agent, raises no alarms")
+    public void testRunWideSlowdownIsNormalized() {
+        Map<String, Long> current = Map.of("A#a.body", 1_800L, "B#b.body", 900L, "C#c.setUp", 3_700L);
+
+        Assert.assertEquals(DETECTOR.detect(current, history()), List.of());
+    }
+
+    @Test(description = "The history keeps a rolling window of the latest runs")
+    public void testHistoryWindow() throws Exception {
+        try (TempDirectory directory = TempDirectory.create("phases")) {
+            PhaseHistory history = new PhaseHistory(directory.getPath(), 3);
+            for (long run = 1; run <= 5; run++) {
+                history.append(Map.of("A#a.body", run * 100));
+            }
+
+            Assert.assertEquals(new PhaseHistory(directory.getPath(), 3).load().get("A#a.body"),
+                    List.of(300L, 400L, 500L));
+        }
+    }
+}
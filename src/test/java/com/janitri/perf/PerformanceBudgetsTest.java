@@ -0,0 +1,84 @@
+package com.janitri.perf;
+
+import com.janitri.listeners.PerformanceBudgetListener;
+import org.testng.Assert;
+import org.testng.ITestResult;
+import org.testng.TestListenerAdapter;
+import org.testng.TestNG;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.List;
+import java.util.Map;
+
+public class PerformanceBudgetsTest {
+
+    @PerformanceBudget(lcpMillis = 2500, cls = 0.1, transferKb = 100, jsHeapMb = 10)
+    private static class BudgetedPage {
+    }
+
+    private static final PerformanceBudget BUDGET = BudgetedPage.class.getAnnotation(PerformanceBudget.class);
+
+    @Test(description = "Metrics within budget and unbudgeted metrics produce no violations")
+    public void testWithinBudget() {
+        PageMetrics metrics = new PageMetrics(Map.of(
+                PageMetrics.LCP, 2_500.0,
+                PageMetrics.CLS, 0.05,
+                PageMetrics.TRANSFER_BYTES, 50.0 * 1024,
+                PageMetrics.LOAD, 60_000.0));
+
+        Assert.assertEquals(PerformanceBudgets.violations(BUDGET, metrics), List.of());
+    }
+
+    @Test(description = "Every exceeded metric is reported in its own unit")
+    public void testViolations() {
+        PageMetrics metrics = new PageMetrics(Map.of(
+                PageMetrics.LCP, 3_100.0,
+                PageMetrics.CLS, 0.25,
+                PageMetrics.JS_HEAP_BYTES, 12.0 * 1024 * 1024));
+
+        List<String> violations = PerformanceBudgets.violations(BUDGET, metrics);
+        Assert.assertEquals(violations, List.of("lcp 3100 ms > 2500 ms", "cls 0.250 > 0.100", "jsHeapBytes 12.0 MB > 10.0 MB"));
+    }
+
+    @Test(description = "In fail mode a budget exceeded during @BeforeMethod fails the test instead of skipping it")
+    public void testFailModeFailsTheTest() {
+        TestListenerAdapter results = new TestListenerAdapter();
+        TestNG testng = new TestNG(false);
+        testng.setTestClasses(new Class<?>[]{OverBudgetFixture.class});
+        testng.addListener(new PerformanceBudgetListener());
+        testng.addListener(results);
+
+        String previous = System.getProperty("test.perf.budgets");
+        System.setProperty("test.perf.budgets", "fail");
+        try {
+            testng.run();
+        } finally {
+            if (previous == null) {
+                System.clearProperty("test.perf.budgets");
+            } else {
+                System.setProperty("test.perf.budgets", previous);
+            }
+        }
+
+        Assert.assertEquals(results.getSkippedTests().size(), 0, "Skipped tests");
+        Assert.assertEquals(results.getFailedTests().size(), 1, "Failed tests");
+        ITestResult failed = results.getFailedTests().get(0);
+        Assert.assertTrue(failed.getThrowable() instanceof AssertionError);
+        Assert.assertEquals(failed.getThrowable().getMessage(),
+                "Performance budget exceeded for BudgetedPage: lcp 3100 ms > 2500 ms");
+    }
+
+    // Checks its page in @BeforeMethod, the way BaseTest.registerPage does
+    public static class OverBudgetFixture {
+
+        @BeforeMethod
+        public void loadPage() {
+            PerformanceBudgets.enforce(BudgetedPage.class, new PageMetrics(Map.of(PageMetrics.LCP, 3_100.0)));
+        }
+
+        @Test
+        public void pageWithinBudget() {
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.janitri.retry;
+
+import com.janitri.support.TempDirectory;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.List;
+import java.util.Map;
+
+public class FlakinessStatsTest {
+
+    @Test(description = "Counts from successive runs add up in the stats file")
+    public void testRunsAccumulate() throws Exception {
+        try (TempDirectory directory = TempDirectory.create("flakiness")) {
+            FlakinessStats stats = new FlakinessStats(directory.getPath());
+
+            stats.record(Map.of("A#x", entry(false, true), "B#y", entry(false, false)));
+            stats.record(Map.of("A#x", entry(true, true)));
+
+            Map<String, FlakinessStats.Entry> loaded = new FlakinessStats(directory.getPath()).load();
+            Assert.assertEquals(loaded.get("A#x").getRuns(), 2);
+            Assert.assertEquals(loaded.get("A#x").getFlaky(), 1);
+            Assert.assertEquals(loaded.get("A#x").getFailed(), 0);
+            Assert.assertEquals(loaded.get("B#y").getFailed(), 1);
+        }
+    }
+
+    @Test(description = "Only tests that often pass after a retry over enough runs are chronic offenders")
+    public void testChronicOffenders() throws Exception {
+        try (TempDirectory directory = TempDirectory.create("flakiness")) {
+            FlakinessStats stats = new FlakinessStats(directory.getPath());
+            for (int run = 0; run < 5; run++) {
+                stats.record(Map.of(
+                        "Often#flaky", entry(run % 2 == 0, true),
+                        "Rarely#flaky", entry(run == 0, true),
+                        "Always#fails", entry(false, false)));
+            }
+            stats.record(Map.of("New#flaky", entry(true, true)));
+
+            List<String> offenders = stats.chronicOffenders(0.2, 5);
+            Assert.assertEquals(offenders, List.of("Often#flaky", "Rarely#flaky"));
+            Assert.assertEquals(stats.chronicOffenders(0.5, 5), List.of("Often#flaky"));
+        }
+    }
+
+    private static FlakinessStats.Entry entry(boolean retried, boolean passed) {
+        FlakinessStats.Entry entry = new FlakinessStats.Entry();
+        entry.add(retried, passed);
+        return entry;
+    }
+}
@@ -0,0 +1,102 @@
+package com.janitri.server;
+
+import com.janitri.pages.LoginMessages;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+// Methods share one scripted server, so they must not run concurrently
+@Test(singleThreaded = true)
+public class LocalLoginServerTest {
+    private LocalLoginServer server;
+    private HttpClient client;
+
+    @BeforeClass
+    public void startServer() {
+        server = LocalLoginServer.start(0, true);
+        client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void resetScript() {
+        server.script().reset();
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void stopServer() {
+        server.stop();
+    }
+
+    @Test(description = "Login page exposes the DOM hooks LoginPage relies on")
+    public void testLoginPageMarkup() throws Exception {
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder(URI.create(server.getBaseUrl())).build(),
+                HttpResponse.BodyHandlers.ofString());
+
+        Assert.assertEquals(response.statusCode(), 200);
+        for (String hook : new String[]{"id=\"formEmail\"", "id=\"formPassword\"", "passowrd-visible",
+                "invalid-credential-div", "normal-text", "dialog-login", "login-janitri-logo"}) {
+            Assert.assertTrue(response.body().contains(hook), "Login page should contain " + hook);
+        }
+        Assert.assertFalse(response.body().contains("{{"), "Template placeholders should be filled in");
+    }
+
+    @Test(description = "Credential endpoint answers with the app's error vocabulary")
+    public void testCredentialOutcomes() throws Exception {
+        Assert.assertEquals(login(LoginScript.DEFAULT_USER, LoginScript.DEFAULT_PASSWORD).statusCode(), 200);
+
+        HttpResponse<String> invalid = login("invalid@test.com", "invalidpassword");
+        Assert.assertEquals(invalid.statusCode(), 401);
+        Assert.assertTrue(invalid.body().contains(LoginMessages.INVALID_CREDENTIALS));
+
+        HttpResponse<String> blocked = login(LoginScript.BLOCKED_USER, LoginScript.DEFAULT_PASSWORD);
+        Assert.assertEquals(blocked.statusCode(), 403);
+        Assert.assertTrue(blocked.body().contains(LoginMessages.USER_NOT_ALLOWED));
+    }
+
+    @Test(description = "Injected latency and failures are applied to the credential endpoint")
+    public void testLatencyAndFailureInjection() throws Exception {
+        server.script().latency(Duration.ofMillis(300)).failNext(LoginScript.FailureMode.SERVER_ERROR);
+
+        long start = System.nanoTime();
+        HttpResponse<String> failed = login(LoginScript.DEFAULT_USER, LoginScript.DEFAULT_PASSWORD);
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        Assert.assertEquals(failed.statusCode(), 500);
+        Assert.assertTrue(elapsedMillis >= 300, "Response should be delayed by the scripted latency");
+        Assert.assertEquals(login(LoginScript.DEFAULT_USER, LoginScript.DEFAULT_PASSWORD).statusCode(), 200,
+                "Queued failure should only apply once");
+
+        server.script().latency(Duration.ZERO).failNext(LoginScript.FailureMode.DROP_CONNECTION);
+        Assert.expectThrows(IOException.class, () -> login(LoginScript.DEFAULT_USER, LoginScript.DEFAULT_PASSWORD));
+    }
+
+    @Test(description = "Bodies that are not an object of string credentials get a 400 instead of no answer")
+    public void testMalformedBodies() throws Exception {
+        for (String body : new String[]{"null", "[]", "{\"email\":1,\"password\":\"x\"}", "{\"email\":"}) {
+            HttpResponse<String> response = post(body);
+            Assert.assertEquals(response.statusCode(), 400, body);
+            Assert.assertTrue(response.body().contains("Malformed request"), body);
+        }
+    }
+
+    private HttpResponse<String> login(String email, String password) throws IOException, InterruptedException {
+        return post("{\"email\":\"" + email + "\",\"password\":\"" + password + "\"}");
+    }
+
+    private HttpResponse<String> post(String body) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(server.getBaseUrl() + "api/auth/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+}
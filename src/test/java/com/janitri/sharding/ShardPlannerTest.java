@@ -0,0 +1,71 @@
+package com.janitri.sharding;
+
+import com.janitri.support.TempDirectory;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class ShardPlannerTest {
+
+    @Test(description = "Slowest methods are spread first so shard totals stay balanced")
+    public void testLongestFirstBalancesShards() {
+        Map<String, Long> durations = new HashMap<>();
+        durations.put("a", 8_000L);
+        durations.put("b", 7_000L);
+        durations.put("c", 6_000L);
+        durations.put("d", 5_000L);
+        durations.put("e", 4_000L);
+
+        Map<String, Integer> plan = ShardPlanner.plan(durations.keySet(), durations, 2);
+        long[] totals = new long[2];
+        plan.forEach((key, shard) -> totals[shard] += durations.get(key));
+
+        // a+d+e = 17s vs b+c = 13s; the bound for LPT is well under putting a,b,c together (21s)
+        Assert.assertEquals(plan.size(), 5);
+        Assert.assertTrue(Math.max(totals[0], totals[1]) <= 17_000L, Arrays.toString(totals));
+    }
+
+    @Test(description = "The plan does not depend on iteration order, so every shard computes the same one")
+    public void testPlanIsDeterministic() {
+        List<String> keys = Arrays.asList("x#one", "x#two", "y#three", "y#four");
+        Map<String, Long> estimates = ShardPlanner.estimates(keys, new HashMap<>(), 1_000L);
+
+        Map<String, Integer> forward = ShardPlanner.plan(keys, estimates, 3);
+        Map<String, Integer> reversed = ShardPlanner.plan(Arrays.asList("y#four", "y#three", "x#two", "x#one"),
+                estimates, 3);
+
+        Assert.assertEquals(forward, reversed);
+        Assert.assertEquals(forward.values().stream().distinct().count(), 3);
+    }
+
+    @Test(description = "Methods without history are estimated at the median of known durations")
+    public void testUnknownMethodsUseMedian() {
+        Map<String, Long> history = new HashMap<>();
+        history.put("a", 1_000L);
+        history.put("b", 3_000L);
+        history.put("c", 9_000L);
+
+        Map<String, Long> estimates = ShardPlanner.estimates(Arrays.asList("a", "b", "c", "new"), history, 5L);
+
+        Assert.assertEquals(estimates.get("new").longValue(), 3_000L);
+        Assert.assertEquals(estimates.get("c").longValue(), 9_000L);
+    }
+
+    @Test(description = "Recorded durations are smoothed into the history file")
+    public void testHistoryIsSmoothed() throws Exception {
+        try (TempDirectory directory = TempDirectory.create("history")) {
+            DurationHistory history = new DurationHistory(directory.getPath());
+
+            history.record(Map.of("a", 1_000L));
+            history.record(Map.of("a", 3_000L, "b", 500L));
+
+            Map<String, Long> loaded = new DurationHistory(directory.getPath()).load();
+            Assert.assertEquals(loaded.get("a").longValue(), 2_000L);
+            Assert.assertEquals(loaded.get("b").longValue(), 500L);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.janitri.support;
+
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+
+/**
+ * A temporary directory for one test, removed with everything in it when closed. Anything that cannot be
+ * deleted fails the close, so a leaking test does not pass silently.
+ */
+public final class TempDirectory implements AutoCloseable {
+    private final Path path;
+
+    private TempDirectory(Path path) {
+        this.path = path;
+    }
+
+    public static TempDirectory create(String prefix) throws IOException {
+        return new TempDirectory(Files.createTempDirectory(prefix));
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (!Files.exists(path)) {
+            return;
+        }
+        Files.walkFileTree(path, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) throws IOException {
+                Files.delete(file);
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult postVisitDirectory(Path directory, IOException e) throws IOException {
+                if (e != null) {
+                    throw e;
+                }
+                Files.delete(directory);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+}
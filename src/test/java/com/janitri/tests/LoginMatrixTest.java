@@ -0,0 +1,127 @@
+package com.janitri.tests;
+
+import com.janitri.base.BaseTest;
+import com.janitri.base.TestConfig;
+import com.janitri.data.LoginCase;
+import com.janitri.data.LoginCases;
+import com.janitri.pages.LoginMessages;
+import com.janitri.pages.LoginPage;
+import com.janitri.trace.Trace;
+import com.janitri.utils.LoginApiStub;
+import com.janitri.utils.ReadinessCondition;
+import org.openqa.selenium.NoAlertPresentException;
+import org.testng.Assert;
+import org.testng.SkipException;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.time.Duration;
+import java.util.Iterator;
+
+public class LoginMatrixTest extends BaseTest {
+    private static final Duration LOGIN_ACCEPTED_TIMEOUT = Duration.ofSeconds(10);
+
+    @BeforeMethod
+    public void setUpTest() {
+        registerPage(new LoginPage(getDriver()));
+    }
+
+    // Every credential row of the manual workbook and CSVs; rows run concurrently on pooled browsers
+    @DataProvider(name = "loginCases", parallel = true)
+    public Iterator<Object[]> loginCases() {
+        Trace.event("Reading login cases from {}", TestConfig.loginMatrixSources());
+        Iterator<LoginCase> cases = LoginCases.iterate(TestConfig.loginMatrixSources());
+        return new Iterator<Object[]>() {
+            @Override
+            public boolean hasNext() {
+                return cases.hasNext();
+            }
+
+            @Override
+            public Object[] next() {
+                return new Object[]{cases.next()};
+            }
+        };
+    }
+
+    @Test(dataProvider = "loginCases", description = "Data-driven login case from the manual test-case workbook")
+    public void testLoginCase(LoginCase loginCase) {
+        LoginPage loginPage = page(LoginPage.class);
+
+        Trace.event("=== Testing: {} expecting {} ===", loginCase, loginCase.getExpectedOutcome());
+
+        // The backend answer follows the workbook, unless -Dtest.login.api.passthrough asks for the real one
+        stubLoginApi(replyFor(loginCase));
+
+        String loginUrl = getDriver().getCurrentUrl();
+        loginPage.clearFields();
+        loginPage.enterUserId(loginCase.getUserId());
+        loginPage.enterPassword(loginCase.getPassword());
+        loginPage.clickLoginButton();
+
+        switch (loginCase.getExpectedOutcome()) {
+            case SUCCESS:
+                boolean leftLoginPage = getWaitEngine().tryUntil(ReadinessCondition.of("login-accepted",
+                        driver -> loginUrl.equals(driver.getCurrentUrl()) ? null : Boolean.TRUE), LOGIN_ACCEPTED_TIMEOUT);
+                Trace.event("Left login page: {}", leftLoginPage);
+                Assert.assertTrue(leftLoginPage || !loginPage.isErrorMessageDisplayed(),
+                        loginCase.getId() + ": valid credentials should not show a login error");
+                break;
+
+            case REJECTED:
+                String errorMessage = errorMessageOrSkip(loginPage, loginCase);
+                if (loginCase.getExpectedMessage() != null) {
+                    Assert.assertTrue(errorMessage.contains(loginCase.getExpectedMessage()),
+                            loginCase.getId() + ": expected '" + loginCase.getExpectedMessage() + "' but was '"
+                                    + errorMessage + "'");
+                } else {
+                    Assert.assertFalse(errorMessage.isEmpty(), loginCase.getId() + ": an error should be displayed");
+                }
+                break;
+
+            case VALIDATION:
+                String validationMessage = errorMessageOrSkip(loginPage, loginCase);
+                Assert.assertFalse(validationMessage.isEmpty(),
+                        loginCase.getId() + ": the form should refuse to submit");
+                break;
+
+            default:
+                // Any graceful answer is fine: no injected script ran and the page is still usable.
+                // No outcome may ever render, so whatever the form shows is read without waiting.
+                String outcome = loginPage.getErrorMessage(Duration.ZERO);
+                Trace.event("Outcome: '{}'", outcome);
+                Assert.assertFalse(isAlertOpen(), loginCase.getId() + ": input must not execute as script");
+                Assert.assertTrue(loginPage.isUserIdInputDisplayed() || !loginUrl.equals(getDriver().getCurrentUrl()),
+                        loginCase.getId() + ": page should survive the input");
+        }
+    }
+
+    private static LoginApiStub.Reply replyFor(LoginCase loginCase) {
+        if (loginCase.getExpectedOutcome() == LoginCase.Outcome.SUCCESS) {
+            return LoginApiStub.Reply.success();
+        }
+        if (LoginMessages.USER_NOT_ALLOWED.equals(loginCase.getExpectedMessage())) {
+            return LoginApiStub.Reply.userNotAllowed();
+        }
+        return LoginApiStub.Reply.invalidCredentials();
+    }
+
+    private static String errorMessageOrSkip(LoginPage loginPage, LoginCase loginCase) {
+        String errorMessage = loginPage.getErrorMessage();
+        Trace.event("Error message: '{}'", errorMessage);
+        if (errorMessage.contains(LoginMessages.NOTIFICATION_REQUIRED)) {
+            throw new SkipException(loginCase.getId() + ": notification dialog is blocking login");
+        }
+        return errorMessage;
+    }
+
+    private boolean isAlertOpen() {
+        try {
+            getDriver().switchTo().alert();
+            return true;
+        } catch (NoAlertPresentException e) {
+            return false;
+        }
+    }
+}